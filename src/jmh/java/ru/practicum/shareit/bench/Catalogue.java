@@ -0,0 +1,84 @@
+package ru.practicum.shareit.bench;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+
+import java.util.Random;
+
+/**
+ * Детерминированный генератор каталога для бенчмарков: одинаковый seed даёт одинаковые данные между запусками.
+ */
+final class Catalogue {
+    static final int ITEMS_PER_OWNER = 10;
+
+    static final String[] WORDS = {
+        "дрель", "перфоратор", "отвёртка", "лестница", "палатка", "велосипед", "самокат", "пила", "молоток",
+        "шуруповёрт", "удочка", "рюкзак", "проектор", "колонка", "гитара", "котёл", "мангал", "drill", "ladder",
+        "tent", "bicycle", "scooter", "saw", "hammer", "screwdriver", "backpack", "projector", "speaker", "guitar",
+        "grill", "аккумуляторная", "электрическая", "складная", "туристическая", "cordless", "electric", "folding",
+        "camping", "новая", "старая", "mini", "pro", "max", "compact", "heavy", "light", "red", "blue", "green"
+    };
+
+    static final String[] QUERIES = {"дрель", "drill", "пал", "акку", "folding tent", "pro", "zzz", "ер", "camp"};
+
+    final UserRepository userRepository;
+    final ItemRepository itemRepository;
+    final long ownerCount;
+
+    private Catalogue(UserRepository userRepository, ItemRepository itemRepository, long ownerCount) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.ownerCount = ownerCount;
+    }
+
+    static Catalogue inMemory(int itemCount) {
+        UserRepository userRepository = new UserRepositoryImpl(false, Journal.NONE);
+        ItemRepository itemRepository = new ItemRepositoryImpl(0, Journal.NONE);
+        fill(userRepository, itemRepository, itemCount);
+        return new Catalogue(userRepository, itemRepository, Math.max(1, itemCount / ITEMS_PER_OWNER));
+    }
+
+    static void fill(UserRepository userRepository, ItemRepository itemRepository, int itemCount) {
+        Random random = new Random(42);
+        int ownerCount = Math.max(1, itemCount / ITEMS_PER_OWNER);
+        User[] owners = new User[ownerCount];
+        for (int i = 0; i < ownerCount; i++) {
+            owners[i] = userRepository.save(user(i));
+        }
+        for (int i = 0; i < itemCount; i++) {
+            itemRepository.save(item(random, owners[random.nextInt(ownerCount)]));
+        }
+    }
+
+    static User user(long index) {
+        User user = new User();
+        user.setName("user " + index);
+        user.setEmail("user" + index + "@bench.local");
+        return user;
+    }
+
+    static Item item(Random random, User owner) {
+        Item item = new Item();
+        item.setName(words(random, 2));
+        item.setDescription(words(random, 6));
+        item.setAvailable(random.nextInt(10) > 0);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
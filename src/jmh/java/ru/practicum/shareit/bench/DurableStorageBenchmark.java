@@ -0,0 +1,144 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.repository.BookingRepositoryImpl;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepositoryImpl;
+import ru.practicum.shareit.storage.DurableStorage;
+import ru.practicum.shareit.storage.FileJournal;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Цена надёжности хранилища в памяти: пропускная способность создания пользователей с журналом
+ * и без него (при многих потоках group commit делит один fsync на пакет записей) и время восстановления
+ * после перезапуска: половина вещей берётся из снимка, вторая половина — из журнала.
+ */
+public class DurableStorageBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        @Param({"none", "wal"})
+        private String journalMode;
+
+        private Path directory;
+        private FileJournal fileJournal;
+        private UserRepositoryImpl userRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Journal journal = Journal.NONE;
+            if ("wal".equals(journalMode)) {
+                directory = Files.createTempDirectory("shareit-wal-bench");
+                fileJournal = new FileJournal(directory);
+                fileJournal.recover(0, record -> {
+                });
+                journal = fileJournal;
+            }
+            userRepository = new UserRepositoryImpl(false, journal);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (fileJournal != null) {
+                fileJournal.close();
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Restart {
+        @Param({"10000", "100000", "1000000"})
+        private int catalogueSize;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("shareit-restart-bench");
+            Repositories repositories = Repositories.open(directory);
+            Catalogue.fill(repositories.users, repositories.items, catalogueSize / 2);
+            repositories.storage.snapshot();
+            Random random = new Random(7);
+            User owner = repositories.users.findById(1L).orElseThrow();
+            for (int i = 0; i < catalogueSize / 2; i++) {
+                repositories.items.save(Catalogue.item(random, owner));
+            }
+            repositories.journal.close();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+    public User createUser(Writes writes) {
+        return writes.userRepository.save(Catalogue.user(Writes.SEQUENCE.incrementAndGet()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+    public long restart(Restart restart) throws IOException {
+        Repositories repositories = Repositories.open(restart.directory);
+        long count = repositories.items.count();
+        repositories.journal.close();
+        return count;
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Repositories(FileJournal journal, UserRepositoryImpl users, ItemRepositoryImpl items,
+                                DurableStorage storage) {
+
+        static Repositories open(Path directory) throws IOException {
+            FileJournal journal = new FileJournal(directory);
+            UserRepositoryImpl users = new UserRepositoryImpl(false, journal);
+            ItemRepositoryImpl items = new ItemRepositoryImpl(0, journal);
+            ItemRequestRepositoryImpl requests = new ItemRequestRepositoryImpl(journal);
+            BookingRepositoryImpl bookings = new BookingRepositoryImpl(journal);
+            DurableStorage storage = new DurableStorage(journal, users, items, requests, bookings, directory,
+                    Duration.ZERO);
+            storage.restore();
+            return new Repositories(journal, users, items, storage);
+        }
+    }
+}
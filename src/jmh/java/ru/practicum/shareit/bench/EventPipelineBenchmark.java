@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventListener;
+import ru.practicum.shareit.event.DomainEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Стоимость публикации события на пути записи в зависимости от числа потребителей. Потребители
+ * имитируют обработку пакета (поиск в индексе, запись в лог) на consumerWorkTokens единиц Blackhole.consumeCPU
+ * на событие; в режиме eventual время публикации от их числа зависеть не должно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPipelineBenchmark {
+
+    @Param({"0", "1", "4", "8"})
+    private int consumers;
+
+    @Param({"eventual", "sync"})
+    private String consistency;
+
+    @Param({"50"})
+    private long consumerWorkTokens;
+
+    private DomainEventPublisher publisher;
+    private final AtomicLong ids = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DomainEventListener> listeners = new ArrayList<>();
+        for (int i = 0; i < consumers; i++) {
+            listeners.add(events -> Blackhole.consumeCPU(consumerWorkTokens * events.size()));
+        }
+        publisher = new DomainEventPublisher(listeners, 8192, 256, consistency, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        publisher.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        publisher.publish(DomainEvent.itemUpdated(ids.incrementAndGet(), 1L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void publishConcurrent() {
+        publisher.publish(DomainEvent.itemUpdated(ids.incrementAndGet(), 1L));
+    }
+}
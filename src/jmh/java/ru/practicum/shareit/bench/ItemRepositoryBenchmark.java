@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ItemRepositoryBenchmark {
+    private static final PageQuery FIRST_PAGE = PageQuery.of(0, 20, null);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogueSize;
+
+    private Catalogue catalogue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalogue = Catalogue.inMemory(catalogueSize);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return catalogue.itemRepository.search(randomQuery());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Item> searchConcurrent() {
+        return catalogue.itemRepository.search(randomQuery());
+    }
+
+    @Benchmark
+    public List<Item> searchFirstPage() {
+        return catalogue.itemRepository.search(randomQuery(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> findAllByOwnerId() {
+        return catalogue.itemRepository.findAllByOwnerId(randomOwnerId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Item> findAllByOwnerIdConcurrent() {
+        return catalogue.itemRepository.findAllByOwnerId(randomOwnerId());
+    }
+
+    private String randomQuery() {
+        return Catalogue.QUERIES[ThreadLocalRandom.current().nextInt(Catalogue.QUERIES.length)];
+    }
+
+    private long randomOwnerId() {
+        return 1 + ThreadLocalRandom.current().nextLong(catalogue.ownerCount);
+    }
+}
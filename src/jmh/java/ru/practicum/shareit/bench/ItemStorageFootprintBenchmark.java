@@ -0,0 +1,102 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.repository.CompactItemRepositoryImpl;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.item.search.RankedSearchIndex;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение занимаемой кучи обычным и компактным хранилищем вещей. Время одиночного прогона здесь
+ * не показательно (в него входят сборки мусора); результат — счётчики на одну вещь, снятые по приросту
+ * занятой кучи после полной сборки:
+ * <ul>
+ *     <li>repositoryBytesPerItem — само хранилище вместе с n-граммным индексом подстрочного поиска, который
+ *     у обоих хранилищ одинаков, так что разница между ними — это разница в хранении самих вещей;</li>
+ *     <li>rankedIndexBytesPerItem — {@link RankedSearchIndex}, построенный по тому же хранилищу. В приложении он
+ *     есть при любом хранилище и держит термины всех доступных вещей, поэтому выигрыш компактного хранилища
+ *     в общей куче меньше, чем по первому счётчику.</li>
+ * </ul>
+ * Замер полагается на то, что System.gc() выполняет полную сборку синхронно: так ведёт себя ParallelGC из
+ * jvmArgsAppend, а с -XX:+DisableExplicitGC или -XX:+ExplicitGCInvokesConcurrent числа не имеют смысла.
+ * Сборка повторяется, пока занятая куча не перестанет уменьшаться. Владельцы создаются до замера
+ * и в него не входят.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:+UseParallelGC"})
+public class ItemStorageFootprintBenchmark {
+
+    @Param({"default", "compact"})
+    private String storage;
+
+    @Param({"100000", "1000000"})
+    private int catalogueSize;
+
+    private User[] owners;
+    private ItemRepository retained;
+    private RankedSearchIndex retainedIndex;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long repositoryBytesPerItem;
+        public long rankedIndexBytesPerItem;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        retained = null;
+        retainedIndex = null;
+        UserRepositoryImpl userRepository = new UserRepositoryImpl(false, Journal.NONE);
+        owners = new User[Math.max(1, catalogueSize / Catalogue.ITEMS_PER_OWNER)];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = userRepository.save(Catalogue.user(i));
+        }
+    }
+
+    @Benchmark
+    public ItemRepository fill(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        ItemRepository repository = "compact".equals(storage)
+                ? new CompactItemRepositoryImpl(0, Journal.NONE)
+                : new ItemRepositoryImpl(0, Journal.NONE);
+        Random random = new Random(42);
+        for (int i = 0; i < catalogueSize; i++) {
+            repository.save(Catalogue.item(random, owners[random.nextInt(owners.length)]));
+        }
+        retained = repository;
+        long afterRepository = usedHeapAfterGc();
+        footprint.repositoryBytesPerItem = (afterRepository - before) / catalogueSize;
+
+        retainedIndex = new RankedSearchIndex(repository);
+        retainedIndex.afterSingletonsInstantiated();
+        footprint.rankedIndexBytesPerItem = (usedHeapAfterGc() - afterRepository) / catalogueSize;
+        return repository;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class MapperBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogueSize;
+
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = Catalogue.inMemory(catalogueSize).itemRepository.findAll();
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDto() {
+        return items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<ItemDto> toItemDtoConcurrent() {
+        return toItemDto();
+    }
+
+    @Benchmark
+    public List<UserDto> toUserDto() {
+        return items.stream()
+                .map(item -> UserMapper.toUserDto(item.getOwner()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<UserDto> toUserDtoConcurrent() {
+        return toUserDto();
+    }
+}
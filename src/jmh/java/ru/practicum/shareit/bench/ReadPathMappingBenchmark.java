@@ -0,0 +1,95 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.mapper.ItemJson;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserJson;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Ответ на чтение страницы вещей и пользователей: отображение в DTO через stream().map().collect() с последующей
+ * сериализацией против записи сущностей в JSON напрямую (ItemJson, UserJson). Сравнивать по gc.alloc.rate.norm:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ReadPathMappingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathMappingBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private List<Item> items;
+    private List<User> users;
+    private ObjectWriter writer;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Catalogue catalogue = Catalogue.inMemory(pageSize * Catalogue.ITEMS_PER_OWNER);
+        items = catalogue.itemRepository.findAll().subList(0, pageSize);
+        users = catalogue.userRepository.findAll();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .registerModule(new SimpleModule()
+                        .addSerializer(Item.class, new ItemJson.Serializer())
+                        .addSerializer(ItemView.class, new ItemJson.ViewSerializer())
+                        .addSerializer(User.class, new UserJson.Serializer()));
+        objectMapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        writer = objectMapper.writer();
+    }
+
+    @Benchmark
+    public void searchViaDto() throws IOException {
+        writer.writeValue(sink, items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void searchDirect() throws IOException {
+        writer.writeValue(sink, items);
+    }
+
+    /**
+     * Как getAllByOwnerId: на вещь создаётся только ItemView. Бронирований в каталоге нет, поэтому прежний
+     * путь владельца совпадает с searchViaDto.
+     */
+    @Benchmark
+    public void ownerItemsDirect() throws IOException {
+        List<ItemView> views = new ArrayList<>(items.size());
+        for (Item item : items) {
+            views.add(ItemView.of(item));
+        }
+        writer.writeValue(sink, views);
+    }
+
+    @Benchmark
+    public void usersViaDto() throws IOException {
+        writer.writeValue(sink, users.stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void usersDirect() throws IOException {
+        writer.writeValue(sink, users);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.item.service.OwnedItemsCleanup;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class UserServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogueSize;
+
+    private UserService userService;
+    private final AtomicLong emailCounter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Catalogue catalogue = Catalogue.inMemory(catalogueSize);
+        DomainEventPublisher eventPublisher = new DomainEventPublisher(List.of(), 8192, 256, "eventual",
+                new SimpleMeterRegistry());
+        OwnedItemsCleanup ownedItemsCleanup = new OwnedItemsCleanup(catalogue.itemRepository, eventPublisher,
+                new NoOpCacheManager(), false, Runnable::run);
+        userService = new UserServiceImpl(catalogue.userRepository, ownedItemsCleanup,
+                new BatchValidator(Validation.buildDefaultValidatorFactory().getValidator()), eventPublisher);
+    }
+
+    @Benchmark
+    public UserDto create() {
+        return userService.create(newUser());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UserDto createConcurrent() {
+        return userService.create(newUser());
+    }
+
+    private UserDto newUser() {
+        long index = emailCounter.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("new user " + index);
+        user.setEmail("new" + index + "@bench.local");
+        return user;
+    }
+}
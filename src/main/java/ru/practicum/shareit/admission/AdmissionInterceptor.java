@@ -0,0 +1,95 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Допуск запросов: сначала бюджет частоты клиента для поиска и изменений, затем общий предел одновременных
+ * запросов. Отказ выбрасывается как {@link TooManyRequestsException} и превращается в 429 в ErrorHandler.
+ * Клиент определяется только по IP: X-Sharer-User-Id никак не проверяется, и ключ по нему обходился бы
+ * сменой заголовка. За обратным прокси IP клиента берётся из X-Forwarded-For средствами Tomcat
+ * (server.forward-headers-strategy=native), который доверяет заголовку только от внутренних прокси,
+ * иначе все клиенты делят бюджет прокси. Ограничение частоты поэтому best-effort, а не защита от злоумышленника.
+ * Для асинхронных ответов (NDJSON) место освобождается после асинхронной части, в afterCompletion
+ * повторной диспетчеризации.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+    private static final String ADMITTED = AdmissionInterceptor.class.getName() + ".admitted";
+    private static final String SEARCH_PATH = "/items/search";
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("shareit.requests.in-flight", concurrencyLimiter, ConcurrencyLimiter::inFlight)
+                .description("Запросы, обрабатываемые в данный момент")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        LimitedEndpoint endpoint = classify(request);
+        if (endpoint != null) {
+            long waitNanos = rateLimiter.tryAcquire(endpoint, client(request));
+            if (waitNanos > 0) {
+                reject("rate-limit", endpoint.tag());
+                throw new TooManyRequestsException("Превышен лимит запросов, повторите позже",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject("concurrency", endpoint == null ? "other" : endpoint.tag());
+            throw new TooManyRequestsException("Сервер перегружен, повторите позже", 1);
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            concurrencyLimiter.release();
+        }
+    }
+
+    private LimitedEndpoint classify(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (HttpMethod.GET.equals(method)) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return path.startsWith(SEARCH_PATH) ? LimitedEndpoint.SEARCH : null;
+        }
+        if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+                || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method)) {
+            return LimitedEndpoint.WRITE;
+        }
+        return null;
+    }
+
+    private String client(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private void reject(String reason, String endpoint) {
+        meterRegistry.counter("shareit.requests.rejected", "reason", reason, "endpoint", endpoint).increment();
+    }
+}
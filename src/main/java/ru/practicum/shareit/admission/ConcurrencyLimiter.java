@@ -0,0 +1,44 @@
+package ru.practicum.shareit.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий предел одновременно обрабатываемых запросов. Сверх предела запрос не ждёт в очереди,
+ * а сразу отклоняется, чтобы задержка принятых запросов не росла. 0 отключает ограничение.
+ */
+@Component
+public class ConcurrencyLimiter {
+    private final int maxConcurrentRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(@Value("${shareit.admission.max-concurrent-requests:256}") int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public boolean tryAcquire() {
+        if (maxConcurrentRequests <= 0) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentRequests) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
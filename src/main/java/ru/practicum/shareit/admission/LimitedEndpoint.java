@@ -0,0 +1,13 @@
+package ru.practicum.shareit.admission;
+
+/**
+ * Группы запросов с отдельным бюджетом частоты на клиента.
+ */
+public enum LimitedEndpoint {
+    SEARCH,
+    WRITE;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ограничение частоты запросов клиента по группам: у каждой пары «группа, клиент» своя {@link TokenBucket}.
+ * Корзины неактивных клиентов вытесняются через IDLE_EXPIRY, общее их число ограничено MAX_CLIENTS.
+ * По умолчанию выключено (shareit.rate-limit.enabled=false): бюджет привязан к IP, и без настроенного
+ * доверия к X-Forwarded-For за прокси он общий на всех клиентов.
+ */
+@Component
+public class RateLimiter {
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+    private static final long MAX_CLIENTS = 100_000;
+
+    private final boolean enabled;
+    private final Map<LimitedEndpoint, Budget> budgets = new EnumMap<>(LimitedEndpoint.class);
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(IDLE_EXPIRY)
+            .maximumSize(MAX_CLIENTS)
+            .build();
+
+    public RateLimiter(@Value("${shareit.rate-limit.enabled:false}") boolean enabled,
+                       @Value("${shareit.rate-limit.search.permits-per-second:20}") double searchPermitsPerSecond,
+                       @Value("${shareit.rate-limit.search.burst:40}") int searchBurst,
+                       @Value("${shareit.rate-limit.write.permits-per-second:10}") double writePermitsPerSecond,
+                       @Value("${shareit.rate-limit.write.burst:20}") int writeBurst) {
+        this.enabled = enabled;
+        budgets.put(LimitedEndpoint.SEARCH, new Budget(searchPermitsPerSecond, searchBurst));
+        budgets.put(LimitedEndpoint.WRITE, new Budget(writePermitsPerSecond, writeBurst));
+    }
+
+    /**
+     * Возвращает 0, если запрос укладывается в бюджет, иначе — через сколько наносекунд его можно повторить.
+     */
+    public long tryAcquire(LimitedEndpoint endpoint, String client) {
+        if (!enabled) {
+            return 0;
+        }
+        Budget budget = budgets.get(endpoint);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(endpoint.tag() + ':' + client,
+                key -> new TokenBucket(budget.permitsPerSecond(), budget.burst(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    private record Budget(double permitsPerSecond, int burst) {
+    }
+}
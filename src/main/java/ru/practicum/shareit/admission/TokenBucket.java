@@ -0,0 +1,38 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок в форме GCRA: всё состояние — одно число, теоретическое время прихода
+ * следующего запроса. Запрос пропускается, если это время опережает текущее не больше чем на burst - 1
+ * интервалов, и тогда оно сдвигается на один интервал через compareAndSet. Это равносильно корзине
+ * ёмкостью burst, которая пополняется на permitsPerSecond токенов в секунду.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Возвращает 0, если токен взят, иначе — через сколько наносекунд он появится.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long ahead = arrival - nowNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, (ahead > 0 ? arrival : nowNanos) + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
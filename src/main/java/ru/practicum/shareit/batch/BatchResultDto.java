@@ -0,0 +1,31 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Результат обработки одного элемента пакетного запроса: index — позиция элемента во входном списке.
+ */
+@Data
+public class BatchResultDto<T> {
+    private int index;
+    private int status;
+    private T result;
+    private String error;
+
+    public static <T> BatchResultDto<T> created(int index, T result) {
+        BatchResultDto<T> dto = new BatchResultDto<>();
+        dto.setIndex(index);
+        dto.setStatus(HttpStatus.CREATED.value());
+        dto.setResult(result);
+        return dto;
+    }
+
+    public static <T> BatchResultDto<T> failed(int index, HttpStatus status, String error) {
+        BatchResultDto<T> dto = new BatchResultDto<>();
+        dto.setIndex(index);
+        dto.setStatus(status.value());
+        dto.setError(error);
+        return dto;
+    }
+}
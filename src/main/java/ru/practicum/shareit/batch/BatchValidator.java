@@ -0,0 +1,34 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Проверяет элементы пакета по одному, чтобы ошибка в одном элементе не отклоняла весь запрос.
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchValidator {
+    private final Validator validator;
+
+    public Optional<String> validate(Object element) {
+        if (element == null) {
+            return Optional.of("Элемент пакета не может быть null");
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(element);
+        if (violations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; ")));
+    }
+}
@@ -1,12 +1,58 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
 
-/**
- * TODO Sprint add-bookings.
- */
+import java.util.List;
+
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
 public class BookingController {
+    private final BookingService bookingService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingDto create(
+            @Valid @RequestBody BookingCreateDto bookingDto,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long bookerId) {
+        return bookingService.create(bookingDto, bookerId);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public BookingDto approve(
+            @PathVariable @Positive Long bookingId,
+            @RequestParam boolean approved,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long ownerId) {
+        return bookingService.approve(bookingId, approved, ownerId);
+    }
+
+    @GetMapping("/{bookingId}")
+    public BookingDto getById(
+            @PathVariable @Positive Long bookingId,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return bookingService.getById(bookingId, userId);
+    }
+
+    @GetMapping
+    public List<BookingDto> getAllByBookerId(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long bookerId) {
+        return bookingService.getAllByBookerId(bookerId, BookingState.from(state));
+    }
+
+    @GetMapping("/owner")
+    public List<BookingDto> getAllByOwnerId(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long ownerId) {
+        return bookingService.getAllByOwnerId(ownerId, BookingState.from(state));
+    }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+public enum BookingState {
+    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
+
+    public static BookingState from(String value) {
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown state: " + value);
+        }
+    }
+
+    public boolean matches(Booking booking, LocalDateTime now) {
+        return switch (this) {
+            case ALL -> true;
+            case CURRENT -> booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+            case PAST -> booking.getEnd().isBefore(now);
+            case FUTURE -> booking.getStart().isAfter(now);
+            case WAITING -> booking.getStatus() == Booking.Status.WAITING;
+            case REJECTED -> booking.getStatus() == Booking.Status.REJECTED;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+@UtilityClass
+public class BookingMapper {
+    public static BookingDto toBookingDto(Booking booking) {
+        BookingDto dto = new BookingDto();
+        dto.setId(booking.getId());
+        dto.setStart(booking.getStart());
+        dto.setEnd(booking.getEnd());
+        dto.setItem(ItemMapper.toItemDto(booking.getItem()));
+        dto.setBooker(UserMapper.toUserDto(booking.getBooker()));
+        dto.setStatus(booking.getStatus());
+        return dto;
+    }
+
+    public static BookingShortDto toBookingShortDto(Booking booking) {
+        BookingShortDto dto = new BookingShortDto();
+        dto.setId(booking.getId());
+        dto.setBookerId(booking.getBooker().getId());
+        dto.setStart(booking.getStart());
+        dto.setEnd(booking.getEnd());
+        return dto;
+    }
+
+    public static Booking toBooking(BookingCreateDto dto, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setStart(dto.getStart());
+        booking.setEnd(dto.getEnd());
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Booking.Status.WAITING);
+        return booking;
+    }
+
+    public static Booking withStatus(Booking booking, Booking.Status status) {
+        Booking copy = new Booking();
+        copy.setId(booking.getId());
+        copy.setStart(booking.getStart());
+        copy.setEnd(booking.getEnd());
+        copy.setItem(booking.getItem());
+        copy.setBooker(booking.getBooker());
+        copy.setStatus(status);
+        return copy;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingJpaRepository extends JpaRepository<Booking, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> lockItem(@Param("itemId") Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id = :id")
+    Optional<Booking> lockById(@Param("id") Long id);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Booking.Status> statuses,
+                                                              LocalDateTime end, LocalDateTime start);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, Booking.Status status,
+                                                                               LocalDateTime now);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(Long itemId, Booking.Status status,
+                                                                             LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
+                                                                             LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, Booking.Status status);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime start,
+                                                                                LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, Booking.Status status);
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingRepository {
+    Booking save(Booking booking);
+
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Переводит ожидающее бронирование в статус переданного экземпляра. Если бронирование уже рассмотрено
+     * параллельным запросом, выбрасывает ConflictException.
+     */
+    Booking update(Booking booking);
+
+    List<Booking> findAllByBookerId(Long bookerId, BookingState state, LocalDateTime now);
+
+    List<Booking> findAllByOwnerId(Long ownerId, BookingState state, LocalDateTime now);
+
+    Optional<Booking> findLastBooking(Long itemId, LocalDateTime now);
+
+    Optional<Booking> findNextBooking(Long itemId, LocalDateTime now);
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.StorageRecords;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("!jpa")
+@Timed(value = "shareit.repository", histogram = true)
+public class BookingRepositoryImpl implements BookingRepository {
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, ItemBookingTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bookingIdsByBooker = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bookingIdsByOwner = new ConcurrentHashMap<>();
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final Journal journal;
+
+    public BookingRepositoryImpl(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public Booking save(Booking booking) {
+        return journal.write(() -> {
+            booking.setId(idCounter.getAndIncrement());
+            if (!timeline(booking.getItem().getId()).tryReserve(booking)) {
+                throw new ValidationException("Вещь с id %d уже забронирована на этот период"
+                        .formatted(booking.getItem().getId()));
+            }
+            bookings.compute(booking.getId(), (id, existing) -> {
+                journal.append(StorageRecords.bookingPut(booking));
+                return booking;
+            });
+            index(booking);
+            return booking;
+        });
+    }
+
+    /**
+     * Восстанавливает бронирование из снимка или журнала, не записывая изменение в журнал. Интервал
+     * бронирования возвращается в индекс вещи без проверки пересечений: он уже был принят до остановки.
+     */
+    public void restore(Booking booking) {
+        idCounter.accumulateAndGet(booking.getId() + 1, Math::max);
+        bookings.put(booking.getId(), booking);
+        timeline(booking.getItem().getId()).put(booking);
+        index(booking);
+    }
+
+    public void restoreDelete(Long id) {
+        Booking removed = bookings.remove(id);
+        if (removed != null) {
+            timeline(removed.getItem().getId()).remove(removed);
+            unindex(bookingIdsByBooker, removed.getBooker().getId(), id);
+            unindex(bookingIdsByOwner, removed.getItem().getOwner().getId(), id);
+        }
+    }
+
+    public List<Booking> findAll() {
+        return new ArrayList<>(bookings.values());
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return Optional.ofNullable(bookings.get(id));
+    }
+
+    @Override
+    public Booking update(Booking booking) {
+        Booking updated = journal.write(() -> bookings.computeIfPresent(booking.getId(), (id, existing) -> {
+            if (existing.getStatus() != Booking.Status.WAITING) {
+                throw new ConflictException("Бронирование с id %d уже рассмотрено параллельным запросом".formatted(id));
+            }
+            timeline(booking.getItem().getId()).put(booking);
+            journal.append(StorageRecords.bookingPut(booking));
+            return booking;
+        }));
+        if (updated == null) {
+            throw new NoSuchElementException("Бронирование с id " + booking.getId() + " не найдено");
+        }
+        return updated;
+    }
+
+    @Override
+    public List<Booking> findAllByBookerId(Long bookerId, BookingState state, LocalDateTime now) {
+        return select(bookingIdsByBooker.get(bookerId), state, now);
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerId(Long ownerId, BookingState state, LocalDateTime now) {
+        return select(bookingIdsByOwner.get(ownerId), state, now);
+    }
+
+    @Override
+    public Optional<Booking> findLastBooking(Long itemId, LocalDateTime now) {
+        ItemBookingTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : timeline.last(now);
+    }
+
+    @Override
+    public Optional<Booking> findNextBooking(Long itemId, LocalDateTime now) {
+        ItemBookingTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : timeline.next(now);
+    }
+
+    private ItemBookingTimeline timeline(Long itemId) {
+        return timelines.computeIfAbsent(itemId, id -> new ItemBookingTimeline());
+    }
+
+    private void index(Booking booking) {
+        index(bookingIdsByBooker, booking.getBooker().getId(), booking.getId());
+        index(bookingIdsByOwner, booking.getItem().getOwner().getId(), booking.getId());
+    }
+
+    private void index(Map<Long, Set<Long>> index, Long key, Long bookingId) {
+        index.computeIfAbsent(key, id -> ConcurrentHashMap.newKeySet()).add(bookingId);
+    }
+
+    private void unindex(Map<Long, Set<Long>> index, Long key, Long bookingId) {
+        Set<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(bookingId);
+        }
+    }
+
+    private List<Booking> select(Set<Long> ids, BookingState state, LocalDateTime now) {
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        return ids.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .filter(booking -> state.matches(booking, now))
+                .sorted(Comparator.comparing(Booking::getStart).reversed())
+                .collect(Collectors.toList());
+    }
+}
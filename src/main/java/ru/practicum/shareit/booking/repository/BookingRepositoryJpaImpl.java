@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@Repository
+@Profile("jpa")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "shareit.repository", histogram = true)
+public class BookingRepositoryJpaImpl implements BookingRepository {
+    private static final EnumSet<Booking.Status> ACTIVE = EnumSet.of(Booking.Status.WAITING, Booking.Status.APPROVED);
+
+    private final BookingJpaRepository jpaRepository;
+
+    @Override
+    @Transactional
+    public Booking save(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        jpaRepository.lockItem(itemId)
+                .orElseThrow(() -> new NoSuchElementException("Вещь с id " + itemId + " не найдена"));
+        if (jpaRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, ACTIVE,
+                booking.getEnd(), booking.getStart())) {
+            throw new ValidationException("Вещь с id %d уже забронирована на этот период".formatted(itemId));
+        }
+        return jpaRepository.save(booking);
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return jpaRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Booking update(Booking booking) {
+        Booking existing = jpaRepository.lockById(booking.getId())
+                .orElseThrow(() -> new NoSuchElementException("Бронирование с id " + booking.getId() + " не найдено"));
+        if (existing.getStatus() != Booking.Status.WAITING) {
+            throw new ConflictException("Бронирование с id %d уже рассмотрено параллельным запросом"
+                    .formatted(booking.getId()));
+        }
+        existing.setStatus(booking.getStatus());
+        return existing;
+    }
+
+    @Override
+    public List<Booking> findAllByBookerId(Long bookerId, BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> jpaRepository.findAllByBookerIdOrderByStartDesc(bookerId);
+            case CURRENT -> jpaRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId, now, now);
+            case PAST -> jpaRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId, now);
+            case FUTURE -> jpaRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId, now);
+            case WAITING -> jpaRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, Booking.Status.WAITING);
+            case REJECTED -> jpaRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, Booking.Status.REJECTED);
+        };
+    }
+
+    @Override
+    public List<Booking> findAllByOwnerId(Long ownerId, BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> jpaRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId);
+            case CURRENT -> jpaRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, now, now);
+            case PAST -> jpaRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
+            case FUTURE -> jpaRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
+            case WAITING -> jpaRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, Booking.Status.WAITING);
+            case REJECTED -> jpaRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, Booking.Status.REJECTED);
+        };
+    }
+
+    @Override
+    public Optional<Booking> findLastBooking(Long itemId, LocalDateTime now) {
+        return jpaRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId,
+                Booking.Status.APPROVED, now);
+    }
+
+    @Override
+    public Optional<Booking> findNextBooking(Long itemId, LocalDateTime now) {
+        return jpaRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId,
+                Booking.Status.APPROVED, now);
+    }
+}
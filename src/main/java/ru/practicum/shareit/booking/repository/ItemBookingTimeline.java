@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Интервальный индекс бронирований одной вещи. Активные (ожидающие и подтверждённые) бронирования
+ * не пересекаются, поэтому упорядоченной по началу карты достаточно, чтобы проверить пересечение
+ * с соседями слева и справа за O(log n). Подтверждённые бронирования продублированы в отдельной карте
+ * для поиска последнего и следующего бронирования. Запись идёт под блокировкой вещи, чтение — без блокировок.
+ */
+class ItemBookingTimeline {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableMap<LocalDateTime, Booking> active = new ConcurrentSkipListMap<>();
+    private final NavigableMap<LocalDateTime, Booking> approved = new ConcurrentSkipListMap<>();
+
+    boolean tryReserve(Booking booking) {
+        lock.lock();
+        try {
+            if (overlaps(booking.getStart(), booking.getEnd())) {
+                return false;
+            }
+            put(booking);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(Booking booking) {
+        lock.lock();
+        try {
+            switch (booking.getStatus()) {
+                case WAITING -> {
+                    active.put(booking.getStart(), booking);
+                    removeIfSame(approved, booking);
+                }
+                case APPROVED -> {
+                    active.put(booking.getStart(), booking);
+                    approved.put(booking.getStart(), booking);
+                }
+                default -> {
+                    removeIfSame(active, booking);
+                    removeIfSame(approved, booking);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Booking booking) {
+        lock.lock();
+        try {
+            removeIfSame(active, booking);
+            removeIfSame(approved, booking);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Optional<Booking> last(LocalDateTime now) {
+        return Optional.ofNullable(approved.lowerEntry(now)).map(Map.Entry::getValue);
+    }
+
+    Optional<Booking> next(LocalDateTime now) {
+        return Optional.ofNullable(approved.higherEntry(now)).map(Map.Entry::getValue);
+    }
+
+    private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> before = active.floorEntry(start);
+        if (before != null && before.getValue().getEnd().isAfter(start)) {
+            return true;
+        }
+        Map.Entry<LocalDateTime, Booking> after = active.higherEntry(start);
+        return after != null && after.getKey().isBefore(end);
+    }
+
+    private void removeIfSame(NavigableMap<LocalDateTime, Booking> timeline, Booking booking) {
+        Booking stored = timeline.get(booking.getStart());
+        if (stored != null && stored.getId().equals(booking.getId())) {
+            timeline.remove(booking.getStart());
+        }
+    }
+}
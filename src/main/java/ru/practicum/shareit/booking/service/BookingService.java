@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+
+public interface BookingService {
+    BookingDto create(BookingCreateDto bookingDto, Long bookerId);
+
+    BookingDto approve(Long bookingId, boolean approved, Long ownerId);
+
+    BookingDto getById(Long bookingId, Long userId);
+
+    List<BookingDto> getAllByBookerId(Long bookerId, BookingState state);
+
+    List<BookingDto> getAllByOwnerId(Long ownerId, BookingState state);
+}
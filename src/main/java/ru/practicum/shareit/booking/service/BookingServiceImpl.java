@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
+public class BookingServiceImpl implements BookingService {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public BookingDto create(BookingCreateDto bookingDto, Long bookerId) {
+        User booker = findUser(bookerId);
+        Item item = itemRepository.findById(bookingDto.getItemId())
+                .orElseThrow(() -> new NoSuchElementException("Вещь с id " + bookingDto.getItemId() + " не найдена"));
+
+        if (item.getOwner().getId().equals(bookerId)) {
+            throw new NoSuchElementException("Владелец не может забронировать свою вещь");
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            throw new ValidationException("Вещь с id %d недоступна для бронирования".formatted(item.getId()));
+        }
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ValidationException("Дата начала бронирования должна быть раньше даты окончания");
+        }
+
+        Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
+        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+    }
+
+    @Override
+    public BookingDto approve(Long bookingId, boolean approved, Long ownerId) {
+        Booking booking = findBooking(bookingId);
+
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            throw new ForbiddenException("Только владелец может подтвердить бронирование");
+        }
+        if (booking.getStatus() != Booking.Status.WAITING) {
+            throw new ValidationException("Бронирование с id %d уже рассмотрено".formatted(bookingId));
+        }
+
+        Booking.Status status = approved ? Booking.Status.APPROVED : Booking.Status.REJECTED;
+        return BookingMapper.toBookingDto(bookingRepository.update(BookingMapper.withStatus(booking, status)));
+    }
+
+    @Override
+    public BookingDto getById(Long bookingId, Long userId) {
+        Booking booking = findBooking(bookingId);
+
+        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+            throw new ForbiddenException("Бронирование доступно только автору и владельцу вещи");
+        }
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    public List<BookingDto> getAllByBookerId(Long bookerId, BookingState state) {
+        findUser(bookerId);
+        return bookingRepository.findAllByBookerId(bookerId, state, LocalDateTime.now()).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwnerId(Long ownerId, BookingState state) {
+        findUser(ownerId);
+        return bookingRepository.findAllByOwnerId(ownerId, state, LocalDateTime.now()).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + userId + " не найден"));
+    }
+
+    private Booking findBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NoSuchElementException("Бронирование с id " + bookingId + " не найдено"));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Имена кешей готовых DTO, объявленных в spring.cache.cache-names.
+ */
+@UtilityClass
+public class CacheNames {
+    public static final String ITEMS = "items";
+    public static final String USERS = "users";
+}
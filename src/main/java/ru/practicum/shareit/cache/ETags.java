@@ -0,0 +1,64 @@
+package ru.practicum.shareit.cache;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * Сильные ETag ответов, вычисляемые по версиям сущностей без сериализации тела. Тег вещи включает id
+ * бронирований, которые видит владелец: они меняются независимо от версии вещи, а даты брони неизменны.
+ */
+@UtilityClass
+public class ETags {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public static String of(ItemDto item) {
+        return quote(tagOf(item.getId(), item.getVersion(),
+                bookingId(item.getLastBooking()), bookingId(item.getNextBooking())));
+    }
+
+    public static String of(UserDto user) {
+        return quote("u" + user.getId() + "." + user.getVersion());
+    }
+
+    /**
+     * Тег списка — 64-битный FNV-1a от тегов элементов в порядке выдачи; параметры страницы входят в URL.
+     */
+    public static String ofItems(List<ItemView> items) {
+        long hash = FNV_OFFSET;
+        for (ItemView item : items) {
+            String tag = tagOf(item);
+            for (int i = 0; i < tag.length(); i++) {
+                hash = (hash ^ tag.charAt(i)) * FNV_PRIME;
+            }
+            hash = (hash ^ ';') * FNV_PRIME;
+        }
+        return quote("l" + items.size() + "-" + Long.toHexString(hash));
+    }
+
+    private static String tagOf(ItemView item) {
+        return tagOf(item.id(), item.item().getVersion(), bookingId(item.lastBooking()), bookingId(item.nextBooking()));
+    }
+
+    private static String tagOf(Long id, Long version, String lastBookingId, String nextBookingId) {
+        return "i" + id + "." + version + "." + lastBookingId + "." + nextBookingId;
+    }
+
+    private static String bookingId(Booking booking) {
+        return booking == null ? "-" : booking.getId().toString();
+    }
+
+    private static String bookingId(BookingShortDto booking) {
+        return booking == null ? "-" : booking.getId().toString();
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Журнал аудита изменений в отдельный логгер shareit.audit.
+ */
+@Slf4j(topic = "shareit.audit")
+@Component
+@ConditionalOnProperty(name = "shareit.events.audit.enabled", havingValue = "true")
+public class AuditLogListener implements DomainEventListener {
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            log.info("{} {} id={} version={}", event.entityType(), event.action(), event.entityId(), event.version());
+        }
+    }
+}
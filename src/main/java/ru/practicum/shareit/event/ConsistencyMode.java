@@ -0,0 +1,10 @@
+package ru.practicum.shareit.event;
+
+/**
+ * SYNC — запись возвращает управление, когда событие обработали все потребители; EVENTUAL — сразу
+ * после публикации в кольцевой буфер.
+ */
+public enum ConsistencyMode {
+    SYNC,
+    EVENTUAL
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Изменение сущности, о котором сервис сообщает после успешной записи. Содержит только id и версию:
+ * потребители читают актуальное состояние сами, поэтому порядок обработки событий разных потоков
+ * на итог не влияет.
+ */
+public record DomainEvent(EntityType entityType, Action action, Long entityId, Long version) {
+
+    public enum EntityType {
+        USER,
+        ITEM
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static DomainEvent itemCreated(Long id, Long version) {
+        return new DomainEvent(EntityType.ITEM, Action.CREATED, id, version);
+    }
+
+    public static DomainEvent itemUpdated(Long id, Long version) {
+        return new DomainEvent(EntityType.ITEM, Action.UPDATED, id, version);
+    }
+
+    public static DomainEvent itemDeleted(Long id) {
+        return new DomainEvent(EntityType.ITEM, Action.DELETED, id, null);
+    }
+
+    public static DomainEvent userCreated(Long id, Long version) {
+        return new DomainEvent(EntityType.USER, Action.CREATED, id, version);
+    }
+
+    public static DomainEvent userUpdated(Long id, Long version) {
+        return new DomainEvent(EntityType.USER, Action.UPDATED, id, version);
+    }
+
+    public static DomainEvent userDeleted(Long id) {
+        return new DomainEvent(EntityType.USER, Action.DELETED, id, null);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.event;
+
+import java.util.List;
+
+/**
+ * Потребитель событий. Каждому потребителю выделяется свой поток, события приходят пакетами в порядке
+ * публикации; список переиспользуется и действителен только во время вызова. Если onEvents бросает
+ * исключение, тот же пакет передаётся повторно, а после исчерпания попыток — в onFailure, и потребитель
+ * переходит к следующим событиям.
+ */
+public interface DomainEventListener {
+
+    void onEvents(List<DomainEvent> events);
+
+    /**
+     * Вызывается в потоке потребителя для пакета, который не удалось обработать и после повторов.
+     * По умолчанию события теряются: ошибка уже записана в лог.
+     */
+    default void onFailure(List<DomainEvent> events, RuntimeException cause) {
+    }
+}
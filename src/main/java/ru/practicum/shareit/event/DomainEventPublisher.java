@@ -0,0 +1,79 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Публикует события сервисов в {@link EventRing}, которое разносит их всем {@link DomainEventListener}.
+ * Режим согласованности задаётся shareit.events.consistency: при eventual запись не ждёт потребителей,
+ * при sync — возвращает управление, когда событие обработано всеми.
+ */
+@Component
+public class DomainEventPublisher {
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final EventRing ring;
+    private final ConsistencyMode consistency;
+
+    public DomainEventPublisher(List<DomainEventListener> listeners,
+                                @Value("${shareit.events.buffer-size:8192}") int bufferSize,
+                                @Value("${shareit.events.batch-size:256}") int batchSize,
+                                @Value("${shareit.events.consistency:eventual}") String consistency,
+                                MeterRegistry meterRegistry) {
+        this.consistency = ConsistencyMode.valueOf(consistency.toUpperCase());
+        this.ring = listeners.isEmpty() ? null : new EventRing(bufferSize, batchSize);
+        if (ring == null) {
+            return;
+        }
+        listeners.forEach(ring::subscribe);
+        ring.start();
+        Gauge.builder("shareit.events.backlog", ring, EventRing::backlog)
+                .description("Опубликованные события, которые ещё не обработал самый медленный потребитель")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.events.backpressure", ring, EventRing::backpressureWaits)
+                .description("Сколько раз запись ждала освобождения места в буфере событий")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.events.failed", ring, EventRing::failedBatches)
+                .description("Пакеты событий, которые потребитель не обработал и после повторов")
+                .register(meterRegistry);
+    }
+
+    public void publish(DomainEvent event) {
+        if (ring == null) {
+            return;
+        }
+        long sequence = ring.publish(event);
+        if (consistency == ConsistencyMode.SYNC && sequence >= 0) {
+            ring.awaitConsumed(sequence);
+        }
+    }
+
+    /**
+     * В режиме sync ожидание одно — до обработки последнего события пакета.
+     */
+    public void publishAll(List<DomainEvent> events) {
+        if (ring == null || events.isEmpty()) {
+            return;
+        }
+        long sequence = -1;
+        for (DomainEvent event : events) {
+            sequence = ring.publish(event);
+        }
+        if (consistency == ConsistencyMode.SYNC && sequence >= 0) {
+            ring.awaitConsumed(sequence);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (ring != null) {
+            ring.stop(STOP_TIMEOUT_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package ru.practicum.shareit.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ограниченный кольцевой буфер событий без блокировок с несколькими писателями и несколькими
+ * потребителями. Писатель захватывает номер ячейки одним incrementAndGet, кладёт событие и отмечает ячейку
+ * опубликованной номером круга. Каждый потребитель в своём потоке идёт по буферу со своей позицией
+ * и забирает подряд опубликованные события пакетом до batchSize. Писатель не будит потребителей и смотрит
+ * на их позиции только при приближении к концу буфера (минимум кешируется), поэтому стоимость публикации
+ * не зависит от числа потребителей. Если самый медленный потребитель отстал на весь буфер, писатель ждёт.
+ * Пакет, на котором потребитель бросил исключение, повторяется до MAX_ATTEMPTS раз с растущей паузой, а затем
+ * передаётся в {@link DomainEventListener#onFailure}: бесконечный повтор остановил бы все записи через
+ * обратное давление, поэтому восстановление после неустранимой ошибки — задача самого потребителя.
+ */
+@Slf4j
+class EventRing {
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_IDLE = SPINS + YIELDS + 7;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final DomainEvent[] entries;
+    private final AtomicIntegerArray published;
+    private final int mask;
+    private final int shift;
+    private final int batchSize;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private volatile long gatingSequence = -1;
+    private volatile boolean running;
+
+    EventRing(int capacity, int batchSize) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера событий должен быть степенью двойки: " + capacity);
+        }
+        this.entries = new DomainEvent[capacity];
+        this.published = new AtomicIntegerArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            published.set(slot, -1);
+        }
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Потребители добавляются до start.
+     */
+    void subscribe(DomainEventListener listener) {
+        subscribers.add(new Subscriber(listener));
+    }
+
+    void start() {
+        running = true;
+        for (Subscriber subscriber : subscribers) {
+            Thread thread = new Thread(subscriber, "shareit-events-" + subscriber.listener.getClass().getSimpleName());
+            thread.setDaemon(true);
+            subscriber.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Потребители дорабатывают уже опубликованные события и останавливаются.
+     */
+    void stop(long timeoutMillis) {
+        running = false;
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.thread.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Возвращает номер события в буфере. После остановки события не принимаются, возвращается -1.
+     */
+    long publish(DomainEvent event) {
+        if (!running) {
+            return -1;
+        }
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > gatingSequence) {
+            long gating = minConsumed();
+            if (wrapPoint > gating) {
+                backpressureWaits.increment();
+                int idle = 0;
+                while (wrapPoint > (gating = minConsumed())) {
+                    if (!running) {
+                        return -1;
+                    }
+                    idle = idle(idle);
+                }
+            }
+            gatingSequence = gating;
+        }
+        int slot = (int) sequence & mask;
+        entries[slot] = event;
+        published.set(slot, round(sequence));
+        return sequence;
+    }
+
+    /**
+     * Ждёт, пока событие с номером sequence обработают все потребители.
+     */
+    void awaitConsumed(long sequence) {
+        int idle = 0;
+        while (running && minConsumed() < sequence) {
+            idle = idle(idle);
+        }
+    }
+
+    long backlog() {
+        return subscribers.isEmpty() ? 0 : Math.max(0, claimed.get() - minConsumed());
+    }
+
+    long backpressureWaits() {
+        return backpressureWaits.sum();
+    }
+
+    /**
+     * Пакеты, которые потребители не обработали и после повторов и передали в onFailure.
+     */
+    long failedBatches() {
+        return failedBatches.sum();
+    }
+
+    private long minConsumed() {
+        long min = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.sequence.get());
+        }
+        return min;
+    }
+
+    private int round(long sequence) {
+        return (int) (sequence >>> shift);
+    }
+
+    /**
+     * Ожидание без блокировок: сначала активное, затем уступка процессора, затем сон с растущей паузой.
+     */
+    private static int idle(int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << (idle - SPINS - YIELDS)));
+        }
+        return Math.min(idle + 1, MAX_IDLE);
+    }
+
+    private final class Subscriber implements Runnable {
+        private final DomainEventListener listener;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final List<DomainEvent> batch = new ArrayList<>();
+        private Thread thread;
+
+        private Subscriber(DomainEventListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                long next = sequence.get() + 1;
+                long end = next;
+                while (end - next < batchSize && published.get((int) end & mask) == round(end)) {
+                    batch.add(entries[(int) end & mask]);
+                    end++;
+                }
+                if (end == next) {
+                    if (!running) {
+                        return;
+                    }
+                    idle = idle(idle);
+                    continue;
+                }
+                idle = 0;
+                deliver();
+                batch.clear();
+                sequence.set(end - 1);
+            }
+        }
+
+        private void deliver() {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    listener.onEvents(batch);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt < MAX_ATTEMPTS) {
+                        log.warn("Потребитель {} не обработал {} событий, попытка {} из {}: {}",
+                                listener.getClass().getSimpleName(), batch.size(), attempt, MAX_ATTEMPTS,
+                                e.getMessage());
+                        LockSupport.parkNanos(RETRY_PARK_NANOS << (attempt - 1));
+                        continue;
+                    }
+                    failedBatches.increment();
+                    log.error("Потребитель {} не обработал {} событий после {} попыток",
+                            listener.getClass().getSimpleName(), batch.size(), MAX_ATTEMPTS, e);
+                    recover(e);
+                    return;
+                }
+            }
+        }
+
+        private void recover(RuntimeException cause) {
+            try {
+                listener.onFailure(batch, cause);
+            } catch (RuntimeException e) {
+                log.error("Потребитель {} не восстановился после ошибки", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
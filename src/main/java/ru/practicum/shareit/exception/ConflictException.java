@@ -0,0 +1,10 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * Изменение основано на устаревшей версии объекта: его успел изменить параллельный запрос.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
@@ -17,14 +22,16 @@ public class ErrorHandler {
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handleNotFoundException(final NoSuchElementException e) {
+    public ErrorResponse handleNotFoundException(final NoSuchElementException e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleValidationException(final MethodArgumentNotValidException e) {
+    public ErrorResponse handleValidationException(final MethodArgumentNotValidException e, HttpServletRequest request) {
+        recordError(request, e);
         String errorMessage = e.getBindingResult().getFieldErrors().stream()
                 .map(fieldError -> {
                     String defaultMessage = fieldError.getDefaultMessage();
@@ -37,37 +44,77 @@ public class ErrorHandler {
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler
-    public ErrorResponse handleValidationException(final ConstraintViolationException e) {
+    public ErrorResponse handleValidationException(final ConstraintViolationException e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleValidationException(final ValidationException e) {
+    public ErrorResponse handleValidationException(final ValidationException e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleAlreadyExistException(final AlreadyExistException e) {
+    public ErrorResponse handleAlreadyExistException(final AlreadyExistException e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException e, HttpServletRequest request) {
+        recordError(request, e);
+        log.error(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final OptimisticLockingFailureException e, HttpServletRequest request) {
+        recordError(request, e);
+        log.error(e.getMessage());
+        return new ErrorResponse("Объект изменён параллельным запросом, повторите операцию");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequestsException(final TooManyRequestsException e, HttpServletRequest request,
+                                                        HttpServletResponse response) {
+        recordError(request, e);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+        log.warn("{}: {} {}", e.getMessage(), request.getMethod(), request.getRequestURI());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
-    public ErrorResponse handleForbiddenException(final ForbiddenException e) {
+    public ErrorResponse handleForbiddenException(final ForbiddenException e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleForbiddenException(final Exception e) {
+    public ErrorResponse handleForbiddenException(final Exception e, HttpServletRequest request) {
+        recordError(request, e);
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
+    /**
+     * Обработанное здесь исключение не доходит до фильтра наблюдений, поэтому передаём его явно:
+     * так тег exception у http.server.requests совпадает с типом, по которому выбран ответ.
+     */
+    private void recordError(HttpServletRequest request, Exception e) {
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setError(e));
+    }
+
 }
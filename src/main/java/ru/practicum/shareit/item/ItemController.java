@@ -2,13 +2,28 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.cache.ETags;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemChanges;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchMode;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.pagination.PageResponses;
+import ru.practicum.shareit.streaming.NdjsonResponseWriter;
 
 import java.util.List;
 
@@ -17,7 +32,13 @@ import java.util.List;
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final int BATCH_MAX_SIZE = 1000;
+    private static final int RANKED_DEFAULT_SIZE = 20;
+    private static final String REVISION_HEADER = "X-Items-Revision";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
     private final ItemService itemService;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -27,14 +48,59 @@ public class ItemController {
         return itemService.create(itemDto, ownerId);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<ItemDto>> createAll(
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<ItemDto> itemDtos,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long ownerId) {
+        return itemService.createAll(itemDtos, ownerId);
+    }
+
+    /**
+     * Ответ несёт сильный ETag по версии вещи; на совпавший If-None-Match отдаётся 304 без тела.
+     * Владелец видит ещё и бронирования, поэтому ответ зависит от X-Sharer-User-Id и помечен Vary.
+     */
     @GetMapping("/{id}")
-    public ItemDto getById(@PathVariable Long id) {
-        return itemService.getById(id);
+    public ResponseEntity<ItemDto> getById(
+            @PathVariable Long id,
+            @RequestHeader(name = "X-Sharer-User-Id", required = false) Long userId) {
+        ItemDto item = itemService.getById(id, userId);
+        return ResponseEntity.ok().eTag(ETags.of(item)).varyBy(USER_HEADER).body(item);
     }
 
+    /**
+     * С параметром since возвращает только вещи, созданные или изменённые после этой ревизии, а в заголовке
+     * X-Items-Revision — ревизию для следующего запроса.
+     */
     @GetMapping
-    public List<ItemDto> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") @Positive Long ownerId) {
-        return itemService.getAllByOwnerId(ownerId);
+    public ResponseEntity<List<ItemView>> getAllByOwnerId(
+            @RequestHeader("X-Sharer-User-Id") @Positive Long ownerId,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @PositiveOrZero Long since) {
+        if (since != null) {
+            if (from != null || cursor != null) {
+                throw new ValidationException("Параметр since не сочетается с from и cursor, используйте size");
+            }
+            ItemChanges changes = itemService.getChangesByOwnerId(ownerId, since,
+                    size == null ? Integer.MAX_VALUE : size);
+            return ResponseEntity.ok()
+                    .header(REVISION_HEADER, Long.toString(changes.revision()))
+                    .varyBy(USER_HEADER)
+                    .body(changes.items());
+        }
+        PageQuery page = PageQuery.of(from, size, cursor);
+        List<ItemView> items = itemService.getAllByOwnerId(ownerId, page);
+        return PageResponses.ok(items, page, ItemView::id)
+                .eTag(ETags.ofItems(items))
+                .varyBy(USER_HEADER)
+                .body(items);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllByOwnerId(
+            @RequestHeader("X-Sharer-User-Id") @Positive Long ownerId) {
+        return ndjsonResponseWriter.write(itemService.streamAllByOwnerId(ownerId));
     }
 
     @PatchMapping("/{id}")
@@ -52,8 +118,29 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(
-            @RequestParam String text) {
-        return itemService.search(text);
+    public ResponseEntity<List<Item>> search(
+            @RequestParam String text,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "substring") String mode,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        if (SearchMode.from(mode) == SearchMode.RANKED) {
+            if (cursor != null) {
+                throw new ValidationException("Курсор не поддерживается в режиме ranked, используйте from и size");
+            }
+            return ResponseEntity.ok(itemService.searchRanked(text,
+                    from == null ? 0 : from, size == null ? RANKED_DEFAULT_SIZE : size, fuzzy));
+        }
+        if (fuzzy) {
+            throw new ValidationException("Нечёткий поиск поддерживается только в режиме ranked");
+        }
+        PageQuery page = PageQuery.of(from, size, cursor);
+        return PageResponses.of(itemService.search(text, page), page, Item::getId);
+    }
+
+    @GetMapping(path = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearch(@RequestParam String text) {
+        return ndjsonResponseWriter.write(itemService.streamSearch(text));
     }
 }
\ No newline at end of file
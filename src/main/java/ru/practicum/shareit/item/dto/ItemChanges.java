@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+/**
+ * Изменённые вещи владельца и ревизия, с которой продолжать следующий запрос изменений.
+ */
+public record ItemChanges(List<ItemView> items, long revision) {
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Вещь в списках на чтение: сущность из хранилища и, для владельца, ближайшие бронирования. В JSON пишется
+ * напрямую из сущностей тем же видом, что и {@link ItemDto}, без промежуточного DTO. Одиночная вещь отдаётся
+ * кешируемым ItemDto, который не ссылается на изменяемую сущность.
+ */
+public record ItemView(Item item, Booking lastBooking, Booking nextBooking) {
+    public static ItemView of(Item item) {
+        return new ItemView(item, null, null);
+    }
+
+    public Long id() {
+        return item.getId();
+    }
+}
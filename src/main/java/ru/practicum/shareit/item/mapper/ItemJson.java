@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+
+/**
+ * Сериализация вещей прямо из сущностей на путях чтения. Поля и их порядок совпадают с ItemDto
+ * и BookingShortDto, поэтому ответы те же, что при отображении в DTO, но без объекта на каждую вещь.
+ * Даты пишутся сериализатором, настроенным в ObjectMapper.
+ */
+@JsonComponent
+public class ItemJson {
+
+    public static class Serializer extends JsonSerializer<Item> {
+        @Override
+        public void serialize(Item item, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(item, null, null, generator, provider);
+        }
+    }
+
+    public static class ViewSerializer extends JsonSerializer<ItemView> {
+        @Override
+        public void serialize(ItemView view, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(view.item(), view.lastBooking(), view.nextBooking(), generator, provider);
+        }
+    }
+
+    private static void write(Item item, Booking lastBooking, Booking nextBooking, JsonGenerator generator,
+                              SerializerProvider provider) throws IOException {
+        generator.writeStartObject(item);
+        generator.writeNumberField("id", item.getId());
+        generator.writeStringField("name", item.getName());
+        generator.writeStringField("description", item.getDescription());
+        generator.writeBooleanField("available", item.getAvailable());
+        if (item.getRequest() != null) {
+            generator.writeNumberField("requestId", item.getRequest().getId());
+        } else {
+            generator.writeNullField("requestId");
+        }
+        writeBooking("lastBooking", lastBooking, generator, provider);
+        writeBooking("nextBooking", nextBooking, generator, provider);
+        generator.writeEndObject();
+    }
+
+    private static void writeBooking(String field, Booking booking, JsonGenerator generator,
+                                     SerializerProvider provider) throws IOException {
+        if (booking == null) {
+            generator.writeNullField(field);
+            return;
+        }
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("id", booking.getId());
+        generator.writeNumberField("bookerId", booking.getBooker().getId());
+        provider.defaultSerializeField("start", booking.getStart(), generator);
+        provider.defaultSerializeField("end", booking.getEnd(), generator);
+        generator.writeEndObject();
+    }
+}
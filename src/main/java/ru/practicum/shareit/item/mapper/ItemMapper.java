@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -16,9 +18,46 @@ public class ItemMapper {
         if (item.getRequest() != null) {
             dto.setRequestId(item.getRequest().getId());
         }
+        if (item.getOwner() != null) {
+            dto.setOwnerId(item.getOwner().getId());
+        }
+        dto.setVersion(item.getVersion());
+        return dto;
+    }
+
+    /**
+     * Копия DTO с ближайшими бронированиями: исходный DTO может лежать в кеше и не меняется.
+     */
+    public static ItemDto withBookings(ItemDto source, Booking lastBooking, Booking nextBooking) {
+        ItemDto dto = new ItemDto();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setDescription(source.getDescription());
+        dto.setAvailable(source.getAvailable());
+        dto.setRequestId(source.getRequestId());
+        dto.setOwnerId(source.getOwnerId());
+        dto.setVersion(source.getVersion());
+        dto.setLastBooking(lastBooking == null ? null : BookingMapper.toBookingShortDto(lastBooking));
+        dto.setNextBooking(nextBooking == null ? null : BookingMapper.toBookingShortDto(nextBooking));
         return dto;
     }
 
+    /**
+     * Новая версия вещи для изменения: опубликованный в хранилище экземпляр не меняется.
+     */
+    public static Item copyOf(Item source) {
+        Item item = new Item();
+        item.setId(source.getId());
+        item.setName(source.getName());
+        item.setDescription(source.getDescription());
+        item.setAvailable(source.getAvailable());
+        item.setOwner(source.getOwner());
+        item.setRequest(source.getRequest());
+        item.setVersion(source.getVersion());
+        item.setRevision(source.getRevision());
+        return item;
+    }
+
     public static Item toItem(ItemDto dto, User owner) {
         Item item = new Item();
         item.setName(dto.getName());
@@ -0,0 +1,607 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.StorageRecords;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Компактное хранилище вещей в памяти (shareit.items.storage=compact). Вещи лежат по столбцам в массивах,
+ * упорядоченных по id: id, владелец, запрос, версия и ревизия — примитивные long, доступность и признак удаления — биты
+ * одного байта, название и описание — строки. Нет ни узлов хеш-таблицы, ни упакованных Long и Boolean,
+ * ни ссылок на User: поиск по id — двоичный, индекс по владельцу и запросу — {@link LongSetIndex}.
+ * Наружу отдаются отдельные копии Item, владелец и запрос в них содержат только id.
+ * Массивы разбиты на {@value #STRIPES} сегментов по остатку id, индексы — на столько же полос по ключу, и у каждого
+ * сегмента и полосы своя блокировка: запись разных вещей идёт параллельно. Ревизия владельца, отметка его удаления
+ * и вставка его вещей выполняются внутри одной атомарной операции над ревизией, как в {@link ItemRepositoryImpl}.
+ * Поиск по тексту — тот же {@link ItemSearchIndex}, что и в обычном хранилище, с той же семантикой регистра;
+ * индекс держит свою копию текста и в компактную раскладку не входит. Удалённые записи остаются дырами
+ * до уплотнения сегмента, которое запускается, когда их становится больше половины.
+ */
+@Repository
+@Profile("!jpa")
+@ConditionalOnProperty(name = "shareit.items.storage", havingValue = "compact")
+@Timed(value = "shareit.repository", histogram = true)
+public class CompactItemRepositoryImpl implements InMemoryItemRepository {
+    private static final int STRIPES = 16;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte AVAILABLE = 1;
+    private static final byte DELETED = 2;
+    private static final long NO_REQUEST = 0;
+
+    private final Segment[] segments = new Segment[STRIPES];
+    private final IndexStripe[] itemIdsByOwner = new IndexStripe[STRIPES];
+    private final IndexStripe[] itemIdsByRequest = new IndexStripe[STRIPES];
+    private final Set<Long> deletedOwners = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> revisionsByOwner = new ConcurrentHashMap<>();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    private final SearchResultCache searchCache;
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final Journal journal;
+
+    public CompactItemRepositoryImpl(@Value("${shareit.items.search-cache.max-ids:200000}") long searchCacheMaxIds,
+                                     Journal journal) {
+        for (int i = 0; i < STRIPES; i++) {
+            segments[i] = new Segment();
+            itemIdsByOwner[i] = new IndexStripe();
+            itemIdsByRequest[i] = new IndexStripe();
+        }
+        this.searchCache = searchCacheMaxIds > 0 ? new SearchResultCache(searchCacheMaxIds) : null;
+        this.journal = journal;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return journal.write(() -> {
+            item.setId(idCounter.getAndIncrement());
+            item.setVersion(0L);
+            revisionsByOwner.compute(ownerId(item), (ownerId, last) -> {
+                checkOwnerNotDeleted(ownerId);
+                long revision = last == null ? 1 : last + 1;
+                item.setRevision(revision);
+                insert(item);
+                return revision;
+            });
+            invalidateSearches(null, item);
+            return item;
+        });
+    }
+
+    /**
+     * Как в {@link ItemRepositoryImpl}: id выделяются одним диапазоном, вещи одного владельца вставляются
+     * за один шаг его ревизии, и если владелец удалён, не сохраняется ни одна из его вещей пакета.
+     */
+    @Override
+    public List<Item> saveAll(List<Item> newItems) {
+        Map<Long, List<Item>> itemsByOwner = newItems.stream()
+                .collect(Collectors.groupingBy(this::ownerId, LinkedHashMap::new, Collectors.toList()));
+        return journal.write(() -> {
+            long firstId = idCounter.getAndAdd(newItems.size());
+            for (int i = 0; i < newItems.size(); i++) {
+                newItems.get(i).setId(firstId + i);
+                newItems.get(i).setVersion(0L);
+            }
+            itemsByOwner.forEach((ownerId, owned) -> revisionsByOwner.compute(ownerId, (key, last) -> {
+                checkOwnerNotDeleted(key);
+                long revision = last == null ? 0 : last;
+                for (Item item : owned) {
+                    item.setRevision(++revision);
+                    insert(item);
+                }
+                return revision;
+            }));
+            newItems.forEach(item -> invalidateSearches(null, item));
+            return newItems;
+        });
+    }
+
+    @Override
+    public void restore(Item item) {
+        idCounter.accumulateAndGet(item.getId() + 1, Math::max);
+        revisionsByOwner.merge(ownerId(item), item.getRevision() == null ? 0 : item.getRevision(), Math::max);
+        Segment segment = segment(item.getId());
+        segment.write(() -> {
+            int slot = segment.slotOf(item.getId());
+            if (slot >= 0) {
+                segment.unindex(slot);
+                if ((segment.flags[slot] & DELETED) == 0) {
+                    segment.live--;
+                }
+                segment.set(slot, item);
+                segment.live++;
+            } else {
+                segment.insert(item);
+            }
+            searchIndex.put(item);
+            return null;
+        });
+    }
+
+    @Override
+    public void restoreDelete(Long id) {
+        remove(id, false);
+    }
+
+    @Override
+    public void restoreOwnerDeleted(Long ownerId) {
+        deletedOwners.add(ownerId);
+    }
+
+    @Override
+    public Set<Long> findDeletedOwnerIds() {
+        return Set.copyOf(deletedOwners);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        Segment segment = segment(id);
+        return segment.read(() -> {
+            int slot = segment.visibleSlotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(segment.toItem(slot));
+        });
+    }
+
+    @Override
+    public List<Item> findAllByOwnerId(Long ownerId, PageQuery page) {
+        if (deletedOwners.contains(ownerId)) {
+            return Collections.emptyList();
+        }
+        return page(indexed(itemIdsByOwner, ownerId), page);
+    }
+
+    @Override
+    public List<Item> findAll() {
+        List<Item> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.read(() -> {
+                for (int slot = 0; slot < segment.size; slot++) {
+                    if ((segment.flags[slot] & DELETED) == 0 && !segment.hidden(slot)) {
+                        result.add(segment.toItem(slot));
+                    }
+                }
+                return null;
+            });
+        }
+        result.sort(Comparator.comparing(Item::getId));
+        return result;
+    }
+
+    @Override
+    public List<Long> findIdsByOwnerId(Long ownerId) {
+        return Arrays.stream(indexed(itemIdsByOwner, ownerId)).boxed().toList();
+    }
+
+    @Override
+    public long findRevisionByOwnerId(Long ownerId) {
+        return revisionsByOwner.getOrDefault(ownerId, 0L);
+    }
+
+    @Override
+    public List<Item> findChangedByOwnerId(Long ownerId, long sinceRevision, long untilRevision, int limit) {
+        if (deletedOwners.contains(ownerId)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(indexed(itemIdsByOwner, ownerId))
+                .mapToObj(this::findById)
+                .flatMap(Optional::stream)
+                .filter(item -> item.getRevision() > sinceRevision && item.getRevision() <= untilRevision)
+                .sorted(Comparator.comparing(Item::getRevision))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Long, List<Item>> findAllByRequestIds(Collection<Long> requestIds) {
+        Map<Long, List<Item>> result = new HashMap<>();
+        for (Long requestId : requestIds) {
+            List<Item> answers = page(indexed(itemIdsByRequest, requestId), PageQuery.unpaged());
+            if (!answers.isEmpty()) {
+                result.put(requestId, answers);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.read(() -> segment.live);
+        }
+        return count;
+    }
+
+    @Override
+    public Item update(Item item) {
+        ItemSearchIndex.IndexedText[] replaced = new ItemSearchIndex.IndexedText[1];
+        journal.write(() -> revisionsByOwner.compute(ownerId(item), (ownerId, last) -> {
+            checkOwnerNotDeleted(ownerId);
+            long revision = last == null ? 1 : last + 1;
+            Segment segment = segment(item.getId());
+            segment.write(() -> {
+                int slot = segment.liveSlotOf(item.getId());
+                if (slot < 0) {
+                    throw new NoSuchElementException("Вещь с id " + item.getId() + " не найдена");
+                }
+                if (item.getVersion() == null || segment.versions[slot] != item.getVersion()) {
+                    throw new ConflictException("Вещь с id %d изменена параллельным запросом".formatted(item.getId()));
+                }
+                item.setVersion(segment.versions[slot] + 1);
+                item.setRevision(revision);
+                segment.unindex(slot);
+                segment.set(slot, item);
+                replaced[0] = searchIndex.put(item);
+                journal.append(StorageRecords.itemPut(item));
+                return null;
+            });
+            return revision;
+        }));
+        invalidateSearches(replaced[0], item);
+        return item;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        invalidateSearches(journal.write(() -> remove(id, true)), null);
+    }
+
+    @Override
+    public void deleteAllByOwnerId(Long ownerId) {
+        deleteAllById(findIdsByOwnerId(ownerId));
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> itemIds) {
+        List<ItemSearchIndex.IndexedText> removed = journal.write(() -> {
+            List<ItemSearchIndex.IndexedText> texts = new ArrayList<>();
+            for (Long id : itemIds) {
+                texts.add(remove(id, true));
+            }
+            return texts;
+        });
+        removed.forEach(text -> invalidateSearches(text, null));
+    }
+
+    /**
+     * Отметка ставится внутри атомарной операции над ревизией владельца, как и вставка его вещей.
+     */
+    @Override
+    public void markOwnerDeleted(Long ownerId) {
+        journal.execute(() -> revisionsByOwner.compute(ownerId, (key, last) -> {
+            if (deletedOwners.add(ownerId)) {
+                journal.append(StorageRecords.ownerDeleted(ownerId));
+            }
+            return last;
+        }));
+    }
+
+    @Override
+    public List<Item> search(String text, PageQuery page) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (searchCache == null) {
+            return findAvailable(text, page);
+        }
+        return searchCache.get(text.toLowerCase(), page, () -> findAvailable(text, page).stream()
+                        .map(Item::getId)
+                        .toList())
+                .stream()
+                .map(this::findById)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    private List<Item> findAvailable(String text, PageQuery page) {
+        return searchIndex.search(text, page.afterId())
+                .map(this::findById)
+                .flatMap(Optional::stream)
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .skip(page.offset())
+                .limit(page.size())
+                .collect(Collectors.toList());
+    }
+
+    private List<Item> page(long[] itemIds, PageQuery page) {
+        List<Item> result = new ArrayList<>();
+        long skip = page.offset();
+        int start = Arrays.binarySearch(itemIds, page.afterId());
+        start = start >= 0 ? start + 1 : -start - 1;
+        for (int i = start; i < itemIds.length && result.size() < page.size(); i++) {
+            Optional<Item> item = findById(itemIds[i]);
+            if (item.isEmpty()) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(item.get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Вызывается внутри атомарной операции над ревизией владельца.
+     */
+    private void insert(Item item) {
+        Segment segment = segment(item.getId());
+        segment.write(() -> {
+            segment.insert(item);
+            searchIndex.put(item);
+            journal.append(StorageRecords.itemPut(item));
+            return null;
+        });
+    }
+
+    /**
+     * Помечает вещь удалённой и возвращает её проиндексированный текст, чтобы после снятия блокировки
+     * сбросить закешированные поиски: загрузка кеша сама берёт блокировки сегментов.
+     */
+    private ItemSearchIndex.IndexedText remove(long id, boolean journaled) {
+        Segment segment = segment(id);
+        return segment.write(() -> {
+            int slot = segment.liveSlotOf(id);
+            if (slot < 0) {
+                return null;
+            }
+            segment.remove(slot);
+            ItemSearchIndex.IndexedText text = searchIndex.remove(id);
+            if (journaled) {
+                journal.append(StorageRecords.itemDelete(id));
+            }
+            return text;
+        });
+    }
+
+    private void invalidateSearches(ItemSearchIndex.IndexedText oldText, Item item) {
+        if (searchCache == null) {
+            return;
+        }
+        if (oldText != null) {
+            searchCache.invalidateMatching(oldText.name());
+            searchCache.invalidateMatching(oldText.description());
+        }
+        if (item != null) {
+            searchCache.invalidateMatching(lowerCase(item.getName()));
+            searchCache.invalidateMatching(lowerCase(item.getDescription()));
+        }
+    }
+
+    private void checkOwnerNotDeleted(Long ownerId) {
+        if (deletedOwners.contains(ownerId)) {
+            throw new NoSuchElementException("Пользователь с id " + ownerId + " не найден");
+        }
+    }
+
+    private Segment segment(long id) {
+        return segments[stripe(id)];
+    }
+
+    private static int stripe(long key) {
+        return Math.floorMod(key, STRIPES);
+    }
+
+    private static long[] indexed(IndexStripe[] index, long key) {
+        IndexStripe stripe = index[stripe(key)];
+        stripe.lock.lock();
+        try {
+            return stripe.ids.get(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static void index(IndexStripe[] index, long key, long id) {
+        IndexStripe stripe = index[stripe(key)];
+        stripe.lock.lock();
+        try {
+            stripe.ids.add(key, id);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static void unindex(IndexStripe[] index, long key, long id) {
+        IndexStripe stripe = index[stripe(key)];
+        stripe.lock.lock();
+        try {
+            stripe.ids.remove(key, id);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static String lowerCase(String source) {
+        return source == null ? null : source.toLowerCase();
+    }
+
+    private Long ownerId(Item item) {
+        return item.getOwner().getId();
+    }
+
+    private static final class IndexStripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongSetIndex ids = new LongSetIndex();
+    }
+
+    /**
+     * Вещи с id из одного остатка по модулю {@value #STRIPES}. Все методы, кроме read и write, вызываются
+     * под блокировкой сегмента.
+     */
+    private final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] ownerIds = new long[INITIAL_CAPACITY];
+        private long[] requestIds = new long[INITIAL_CAPACITY];
+        private long[] versions = new long[INITIAL_CAPACITY];
+        private long[] revisions = new long[INITIAL_CAPACITY];
+        private String[] names = new String[INITIAL_CAPACITY];
+        private String[] descriptions = new String[INITIAL_CAPACITY];
+        private byte[] flags = new byte[INITIAL_CAPACITY];
+        private int size;
+        private int live;
+
+        /**
+         * Вставляет вещь с сохранением порядка по id. Id выдаются по возрастанию, поэтому сдвиг нужен только
+         * при восстановлении записей не по порядку или когда параллельная вставка большего id успела раньше.
+         */
+        void insert(Item item) {
+            if (size == ids.length) {
+                grow(size + (size >> 1));
+            }
+            int slot = size == 0 || ids[size - 1] < item.getId() ? size : -slotOf(item.getId()) - 1;
+            int tail = size - slot;
+            if (tail > 0) {
+                System.arraycopy(ids, slot, ids, slot + 1, tail);
+                System.arraycopy(ownerIds, slot, ownerIds, slot + 1, tail);
+                System.arraycopy(requestIds, slot, requestIds, slot + 1, tail);
+                System.arraycopy(versions, slot, versions, slot + 1, tail);
+                System.arraycopy(revisions, slot, revisions, slot + 1, tail);
+                System.arraycopy(names, slot, names, slot + 1, tail);
+                System.arraycopy(descriptions, slot, descriptions, slot + 1, tail);
+                System.arraycopy(flags, slot, flags, slot + 1, tail);
+            }
+            size++;
+            live++;
+            set(slot, item);
+        }
+
+        void set(int slot, Item item) {
+            ids[slot] = item.getId();
+            ownerIds[slot] = item.getOwner().getId();
+            requestIds[slot] = item.getRequest() == null ? NO_REQUEST : item.getRequest().getId();
+            versions[slot] = item.getVersion() == null ? 0 : item.getVersion();
+            revisions[slot] = item.getRevision() == null ? 0 : item.getRevision();
+            names[slot] = item.getName();
+            descriptions[slot] = item.getDescription();
+            flags[slot] = Boolean.TRUE.equals(item.getAvailable()) ? AVAILABLE : 0;
+            index(itemIdsByOwner, ownerIds[slot], ids[slot]);
+            if (requestIds[slot] != NO_REQUEST) {
+                index(itemIdsByRequest, requestIds[slot], ids[slot]);
+            }
+        }
+
+        void unindex(int slot) {
+            CompactItemRepositoryImpl.unindex(itemIdsByOwner, ownerIds[slot], ids[slot]);
+            if (requestIds[slot] != NO_REQUEST) {
+                CompactItemRepositoryImpl.unindex(itemIdsByRequest, requestIds[slot], ids[slot]);
+            }
+        }
+
+        void remove(int slot) {
+            unindex(slot);
+            flags[slot] = DELETED;
+            names[slot] = null;
+            descriptions[slot] = null;
+            live--;
+            if (size > INITIAL_CAPACITY && size - live > size / 2) {
+                compact();
+            }
+        }
+
+        Item toItem(int slot) {
+            Item item = new Item();
+            item.setId(ids[slot]);
+            item.setName(names[slot]);
+            item.setDescription(descriptions[slot]);
+            item.setAvailable((flags[slot] & AVAILABLE) != 0);
+            item.setVersion(versions[slot]);
+            item.setRevision(revisions[slot]);
+            User owner = new User();
+            owner.setId(ownerIds[slot]);
+            item.setOwner(owner);
+            if (requestIds[slot] != NO_REQUEST) {
+                ItemRequest request = new ItemRequest();
+                request.setId(requestIds[slot]);
+                item.setRequest(request);
+            }
+            return item;
+        }
+
+        int slotOf(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        int liveSlotOf(long id) {
+            int slot = slotOf(id);
+            return slot >= 0 && (flags[slot] & DELETED) == 0 ? slot : -1;
+        }
+
+        int visibleSlotOf(long id) {
+            int slot = liveSlotOf(id);
+            return slot >= 0 && !hidden(slot) ? slot : -1;
+        }
+
+        boolean hidden(int slot) {
+            return !deletedOwners.isEmpty() && deletedOwners.contains(ownerIds[slot]);
+        }
+
+        <T> T read(Supplier<T> action) {
+            lock.readLock().lock();
+            try {
+                return action.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        <T> T write(Supplier<T> action) {
+            lock.writeLock().lock();
+            try {
+                return action.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void compact() {
+            int target = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if ((flags[slot] & DELETED) != 0) {
+                    continue;
+                }
+                ids[target] = ids[slot];
+                ownerIds[target] = ownerIds[slot];
+                requestIds[target] = requestIds[slot];
+                versions[target] = versions[slot];
+                revisions[target] = revisions[slot];
+                names[target] = names[slot];
+                descriptions[target] = descriptions[slot];
+                flags[target] = flags[slot];
+                target++;
+            }
+            Arrays.fill(names, target, size, null);
+            Arrays.fill(descriptions, target, size, null);
+            size = target;
+            grow(Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            ownerIds = Arrays.copyOf(ownerIds, capacity);
+            requestIds = Arrays.copyOf(requestIds, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            revisions = Arrays.copyOf(revisions, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+    }
+}
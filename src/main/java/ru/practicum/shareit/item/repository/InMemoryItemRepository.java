@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Set;
+
+/**
+ * Хранилище вещей в памяти, которое восстанавливается из снимка и журнала.
+ */
+public interface InMemoryItemRepository extends ItemRepository {
+
+    /**
+     * Сохраняет вещь с уже назначенным id, не записывая изменение в журнал.
+     */
+    void restore(Item item);
+
+    void restoreDelete(Long id);
+
+    /**
+     * Восстанавливает отметку удаляемого владельца, не записывая её в журнал.
+     */
+    void restoreOwnerDeleted(Long ownerId);
+
+    /**
+     * Владельцы, отмеченные удаляемыми. Отметки записываются в журнал и снимок, чтобы при восстановлении
+     * довести удаление вещей, прерванное остановкой; id пользователей не переиспользуются, поэтому
+     * отметки не снимаются.
+     */
+    Set<Long> findDeletedOwnerIds();
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemJpaRepository extends JpaRepository<Item, Long> {
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Pageable pageable);
+
+    List<Item> findAllByOrderByIdAsc();
+
+    @Query("select i from Item i join fetch i.owner where i.request.id in :requestIds order by i.id")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId order by i.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select i from Item i where i.owner.id = :ownerId and i.revision > :sinceRevision " +
+            "and i.revision <= :untilRevision order by i.revision")
+    List<Item> findChanged(@Param("ownerId") Long ownerId, @Param("sinceRevision") long sinceRevision,
+                           @Param("untilRevision") long untilRevision, Pageable pageable);
+
+    /**
+     * Сдвигает счётчик ревизий вещей владельца; блокировка строки пользователя держится до конца транзакции,
+     * поэтому изменения вещей одного владельца фиксируются в порядке их ревизий.
+     */
+    @Modifying
+    @Query(value = "update users set items_revision = items_revision + :count where id = :ownerId", nativeQuery = true)
+    int advanceRevision(@Param("ownerId") Long ownerId, @Param("count") long count);
+
+    @Query(value = "select items_revision from users where id = :ownerId", nativeQuery = true)
+    Optional<Long> findRevision(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("delete from Item i where i.owner.id = :ownerId")
+    void deleteAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select i from Item i where i.available = true and i.id > :afterId " +
+            "and (lower(i.name) like concat('%', :pattern, '%') escape '!' " +
+            "or lower(i.description) like concat('%', :pattern, '%') escape '!') " +
+            "order by i.id")
+    List<Item> search(@Param("pattern") String pattern, @Param("afterId") Long afterId, Pageable pageable);
+}
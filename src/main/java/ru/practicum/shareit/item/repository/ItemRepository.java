@@ -1,22 +1,69 @@
 package ru.practicum.shareit.item.repository;
 
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ItemRepository {
     Item save(Item item);
 
+    List<Item> saveAll(List<Item> items);
+
     Optional<Item> findById(Long id);
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    List<Item> findAllByOwnerId(Long ownerId, PageQuery page);
+
+    default List<Item> findAllByOwnerId(Long ownerId) {
+        return findAllByOwnerId(ownerId, PageQuery.unpaged());
+    }
 
     List<Item> findAll();
 
+    /**
+     * Id всех вещей владельца по возрастанию, включая скрытые.
+     */
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    /**
+     * Последняя ревизия вещей владельца. Все его вещи с ревизией не больше возвращённой уже видны при чтении.
+     */
+    long findRevisionByOwnerId(Long ownerId);
+
+    /**
+     * Вещи владельца с ревизией в полуинтервале (sinceRevision, untilRevision] по возрастанию ревизии,
+     * не больше limit. Удалённые вещи не возвращаются.
+     */
+    List<Item> findChangedByOwnerId(Long ownerId, long sinceRevision, long untilRevision, int limit);
+
+    Map<Long, List<Item>> findAllByRequestIds(Collection<Long> requestIds);
+
+    long count();
+
+    /**
+     * Публикует новую версию вещи. Передаётся новый экземпляр с версией, от которой он получен;
+     * если хранимая версия уже другая, выбрасывается ConflictException, иначе версия увеличивается.
+     */
     Item update(Item item);
 
     void deleteById(Long id);
 
-    List<Item> search(String text);
+    void deleteAllByOwnerId(Long ownerId);
+
+    void deleteAllById(Collection<Long> ids);
+
+    /**
+     * Отмечает владельца удаляемым до удаления его вещей: они перестают возвращаться при чтении, а создание
+     * и изменение вещей этого владельца завершается NoSuchElementException. Отметка не снимается.
+     */
+    void markOwnerDeleted(Long ownerId);
+
+    List<Item> search(String text, PageQuery page);
+
+    default List<Item> search(String text) {
+        return search(text, PageQuery.unpaged());
+    }
 }
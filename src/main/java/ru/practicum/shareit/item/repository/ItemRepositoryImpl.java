@@ -1,70 +1,395 @@
 package ru.practicum.shareit.item.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.StorageRecords;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Repository
-public class ItemRepositoryImpl implements ItemRepository {
-    private final Map<Long, Item> items = new HashMap<>();
-    private long idCounter = 1;
+@Profile("!jpa")
+@ConditionalOnProperty(name = "shareit.items.storage", havingValue = "default", matchIfMissing = true)
+@Timed(value = "shareit.repository", histogram = true)
+public class ItemRepositoryImpl implements InMemoryItemRepository {
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> itemIdsByOwner = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> itemIdsByRequest = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revisionsByOwner = new ConcurrentHashMap<>();
+    private final Set<Long> deletedOwners = ConcurrentHashMap.newKeySet();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    private final SearchResultCache searchCache;
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final Journal journal;
+
+    public ItemRepositoryImpl(@Value("${shareit.items.search-cache.max-ids:200000}") long searchCacheMaxIds,
+                              Journal journal) {
+        this.searchCache = searchCacheMaxIds > 0 ? new SearchResultCache(searchCacheMaxIds) : null;
+        this.journal = journal;
+    }
 
     @Override
     public Item save(Item item) {
-        item.setId(idCounter++);
-        items.put(item.getId(), item);
-        return item;
+        return journal.write(() -> {
+            item.setId(idCounter.getAndIncrement());
+            item.setVersion(0L);
+            withNextRevision(item, () -> items.compute(item.getId(), (id, existing) -> {
+                addToOwnerIndex(item);
+                addToRequestIndex(item);
+                searchIndex.put(item);
+                journal.append(StorageRecords.itemPut(item));
+                return item;
+            }));
+            invalidateSearches(null, item);
+            return item;
+        });
+    }
+
+    /**
+     * Пакет пишется в журнал одной групповой записью, id выделяются одним диапазоном. Вещи одного владельца
+     * публикуются за один шаг его ревизии: если владелец удалён, не сохраняется ни одна из его вещей пакета.
+     */
+    @Override
+    public List<Item> saveAll(List<Item> newItems) {
+        Map<Long, List<Item>> itemsByOwner = newItems.stream()
+                .collect(Collectors.groupingBy(this::ownerId, LinkedHashMap::new, Collectors.toList()));
+        return journal.write(() -> {
+            long firstId = idCounter.getAndAdd(newItems.size());
+            for (int i = 0; i < newItems.size(); i++) {
+                newItems.get(i).setId(firstId + i);
+                newItems.get(i).setVersion(0L);
+            }
+            itemsByOwner.forEach((ownerId, owned) -> revisionsByOwner.compute(ownerId, (key, last) -> {
+                if (deletedOwners.contains(key)) {
+                    throw new NoSuchElementException("Пользователь с id " + key + " не найден");
+                }
+                long revision = last == null ? 0 : last;
+                for (Item item : owned) {
+                    item.setRevision(++revision);
+                    addToOwnerIndex(item);
+                    addToRequestIndex(item);
+                    searchIndex.put(item);
+                    items.put(item.getId(), item);
+                    journal.append(StorageRecords.itemPut(item));
+                }
+                return revision;
+            }));
+            newItems.forEach(item -> invalidateSearches(null, item));
+            return newItems;
+        });
+    }
+
+    @Override
+    public void restore(Item item) {
+        idCounter.accumulateAndGet(item.getId() + 1, Math::max);
+        revisionsByOwner.merge(ownerId(item), item.getRevision() == null ? 0 : item.getRevision(), Math::max);
+        items.compute(item.getId(), (id, existing) -> {
+            if (existing != null) {
+                removeFromOwnerIndex(existing);
+                removeFromRequestIndex(existing);
+            }
+            addToOwnerIndex(item);
+            addToRequestIndex(item);
+            searchIndex.put(item);
+            return item;
+        });
+    }
+
+    @Override
+    public void restoreDelete(Long id) {
+        remove(id, false);
+    }
+
+    @Override
+    public void restoreOwnerDeleted(Long ownerId) {
+        deletedOwners.add(ownerId);
+    }
+
+    @Override
+    public Set<Long> findDeletedOwnerIds() {
+        return Set.copyOf(deletedOwners);
     }
 
     @Override
     public Optional<Item> findById(Long id) {
-        return Optional.ofNullable(items.get(id));
+        return Optional.ofNullable(items.get(id)).filter(this::visible);
     }
 
     @Override
-    public List<Item> findAllByOwnerId(Long ownerId) {
-        return items.values().stream()
-                .filter(item -> item.getOwner().getId().equals(ownerId))
+    public List<Item> findAllByOwnerId(Long ownerId, PageQuery page) {
+        NavigableSet<Long> ids = itemIdsByOwner.get(ownerId);
+        if (ids == null || deletedOwners.contains(ownerId)) {
+            return Collections.emptyList();
+        }
+        return ids.tailSet(page.afterId(), false).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .skip(page.offset())
+                .limit(page.size())
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Item> findAll() {
-        return new ArrayList<>(items.values());
+        return items.values().stream()
+                .filter(this::visible)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> findIdsByOwnerId(Long ownerId) {
+        NavigableSet<Long> ids = itemIdsByOwner.get(ownerId);
+        return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+    }
+
+    @Override
+    public long findRevisionByOwnerId(Long ownerId) {
+        return revisionsByOwner.getOrDefault(ownerId, 0L);
+    }
+
+    @Override
+    public List<Item> findChangedByOwnerId(Long ownerId, long sinceRevision, long untilRevision, int limit) {
+        NavigableSet<Long> ids = itemIdsByOwner.get(ownerId);
+        if (ids == null || deletedOwners.contains(ownerId)) {
+            return Collections.emptyList();
+        }
+        return ids.stream()
+                .map(items::get)
+                .filter(item -> item != null && item.getRevision() > sinceRevision
+                        && item.getRevision() <= untilRevision)
+                .sorted(Comparator.comparing(Item::getRevision))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Long, List<Item>> findAllByRequestIds(Collection<Long> requestIds) {
+        Map<Long, List<Item>> result = new HashMap<>();
+        for (Long requestId : requestIds) {
+            NavigableSet<Long> ids = itemIdsByRequest.get(requestId);
+            if (ids == null) {
+                continue;
+            }
+            List<Item> answers = ids.stream()
+                    .map(items::get)
+                    .filter(item -> item != null && visible(item))
+                    .collect(Collectors.toList());
+            if (!answers.isEmpty()) {
+                result.put(requestId, answers);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long count() {
+        return items.size();
     }
 
     @Override
     public Item update(Item item) {
-        if (items.containsKey(item.getId())) {
-            items.put(item.getId(), item);
+        ItemSearchIndex.IndexedText[] replaced = new ItemSearchIndex.IndexedText[1];
+        Supplier<Item> replace = () -> items.computeIfPresent(item.getId(), (id, existing) -> {
+            if (!Objects.equals(existing.getVersion(), item.getVersion())) {
+                throw new ConflictException("Вещь с id %d изменена параллельным запросом".formatted(id));
+            }
+            item.setVersion(existing.getVersion() + 1);
+            if (!ownerId(existing).equals(ownerId(item))) {
+                removeFromOwnerIndex(existing);
+                addToOwnerIndex(item);
+            }
+            if (!Objects.equals(requestId(existing), requestId(item))) {
+                removeFromRequestIndex(existing);
+                addToRequestIndex(item);
+            }
+            replaced[0] = searchIndex.put(item);
+            journal.append(StorageRecords.itemPut(item));
             return item;
+        });
+        Item updated = journal.write(() -> withNextRevision(item, replace));
+        if (updated == null) {
+            throw new NoSuchElementException("Вещь с id " + item.getId() + " не найдена");
         }
-        throw new NoSuchElementException("Вещь с id " + item.getId() + " не найдена");
+        invalidateSearches(replaced[0], item);
+        return updated;
     }
 
     @Override
     public void deleteById(Long id) {
-        items.remove(id);
+        journal.execute(() -> remove(id, true));
+    }
+
+    @Override
+    public void deleteAllByOwnerId(Long ownerId) {
+        NavigableSet<Long> ids = itemIdsByOwner.get(ownerId);
+        if (ids == null) {
+            return;
+        }
+        deleteAllById(ids);
     }
 
     @Override
-    public List<Item> search(String text) {
+    public void deleteAllById(Collection<Long> ids) {
+        journal.execute(() -> {
+            for (Long id : ids) {
+                remove(id, true);
+            }
+        });
+    }
+
+    /**
+     * Отметка ставится внутри атомарной операции над ревизией владельца, как и создание его вещей:
+     * вещь, созданная до отметки, уже видна в индексе владельца, а после — не будет создана.
+     */
+    @Override
+    public void markOwnerDeleted(Long ownerId) {
+        journal.execute(() -> revisionsByOwner.compute(ownerId, (key, last) -> {
+            if (deletedOwners.add(ownerId)) {
+                journal.append(StorageRecords.ownerDeleted(ownerId));
+            }
+            return last;
+        }));
+    }
+
+    @Override
+    public List<Item> search(String text, PageQuery page) {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
 
-        String searchText = text.toLowerCase();
+        if (searchCache == null) {
+            return findAvailable(text, page);
+        }
+        return searchCache.get(text.toLowerCase(), page, () -> findAvailable(text, page).stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .map(items::get)
+                .filter(item -> item != null && visible(item))
+                .collect(Collectors.toList());
+    }
 
-        return items.values().stream()
-                .filter(Item::getAvailable)
-                .filter(item -> containsIgnoreCase(item.getName(), searchText) ||
-                        containsIgnoreCase(item.getDescription(), searchText))
+    private void remove(Long id, boolean journaled) {
+        ItemSearchIndex.IndexedText[] removed = new ItemSearchIndex.IndexedText[1];
+        items.computeIfPresent(id, (key, existing) -> {
+            removeFromOwnerIndex(existing);
+            removeFromRequestIndex(existing);
+            removed[0] = searchIndex.remove(key);
+            if (journaled) {
+                journal.append(StorageRecords.itemDelete(key));
+            }
+            return null;
+        });
+        invalidateSearches(removed[0], null);
+    }
+
+    private List<Item> findAvailable(String text, PageQuery page) {
+        return searchIndex.search(text, page.afterId())
+                .map(items::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()) && visible(item))
+                .skip(page.offset())
+                .limit(page.size())
                 .collect(Collectors.toList());
     }
 
-    private boolean containsIgnoreCase(String source, String target) {
-        return source != null && source.toLowerCase().contains(target);
+    /**
+     * Вызывается после публикации изменения в items, чтобы повторная загрузка сброшенного запроса
+     * уже видела новое состояние.
+     */
+    private void invalidateSearches(ItemSearchIndex.IndexedText oldText, Item item) {
+        if (searchCache == null) {
+            return;
+        }
+        if (oldText != null) {
+            searchCache.invalidateMatching(oldText.name());
+            searchCache.invalidateMatching(oldText.description());
+        }
+        if (item != null) {
+            searchCache.invalidateMatching(lowerCase(item.getName()));
+            searchCache.invalidateMatching(lowerCase(item.getDescription()));
+        }
+    }
+
+    /**
+     * Назначает вещи следующую ревизию владельца и выполняет изменение внутри той же атомарной операции
+     * над ревизией: когда новая ревизия владельца становится видна, изменённая вещь уже опубликована.
+     */
+    private Item withNextRevision(Item item, Supplier<Item> change) {
+        Item[] changed = new Item[1];
+        revisionsByOwner.compute(ownerId(item), (ownerId, last) -> {
+            if (deletedOwners.contains(ownerId)) {
+                throw new NoSuchElementException("Пользователь с id " + ownerId + " не найден");
+            }
+            long revision = last == null ? 1 : last + 1;
+            item.setRevision(revision);
+            changed[0] = change.get();
+            return changed[0] == null ? last : revision;
+        });
+        return changed[0];
+    }
+
+    private boolean visible(Item item) {
+        return deletedOwners.isEmpty() || !deletedOwners.contains(ownerId(item));
+    }
+
+    private static String lowerCase(String source) {
+        return source == null ? null : source.toLowerCase();
+    }
+
+    private void addToOwnerIndex(Item item) {
+        itemIdsByOwner.compute(ownerId(item), (key, ids) -> {
+            NavigableSet<Long> result = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            result.add(item.getId());
+            return result;
+        });
+    }
+
+    private void removeFromOwnerIndex(Item item) {
+        itemIdsByOwner.computeIfPresent(ownerId(item), (key, ids) -> {
+            ids.remove(item.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void addToRequestIndex(Item item) {
+        Long requestId = requestId(item);
+        if (requestId == null) {
+            return;
+        }
+        itemIdsByRequest.compute(requestId, (key, ids) -> {
+            NavigableSet<Long> result = ids == null ? new ConcurrentSkipListSet<>() : ids;
+            result.add(item.getId());
+            return result;
+        });
+    }
+
+    private void removeFromRequestIndex(Item item) {
+        Long requestId = requestId(item);
+        if (requestId == null) {
+            return;
+        }
+        itemIdsByRequest.computeIfPresent(requestId, (key, ids) -> {
+            ids.remove(item.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private Long requestId(Item item) {
+        return item.getRequest() == null ? null : item.getRequest().getId();
+    }
+
+    private Long ownerId(Item item) {
+        return item.getOwner().getId();
     }
 }
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageQuery;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("jpa")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "shareit.repository", histogram = true)
+public class ItemRepositoryJpaImpl implements ItemRepository {
+    private final ItemJpaRepository jpaRepository;
+
+    @Override
+    @Transactional
+    public Item save(Item item) {
+        assignRevisions(List.of(item));
+        return jpaRepository.save(item);
+    }
+
+    @Override
+    @Transactional
+    public List<Item> saveAll(List<Item> items) {
+        assignRevisions(items);
+        return jpaRepository.saveAll(items);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return jpaRepository.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllByOwnerId(Long ownerId, PageQuery page) {
+        return jpaRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, page.afterId(),
+                OffsetPageRequest.of(page));
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return jpaRepository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    public List<Long> findIdsByOwnerId(Long ownerId) {
+        return jpaRepository.findIdsByOwnerId(ownerId);
+    }
+
+    @Override
+    public long findRevisionByOwnerId(Long ownerId) {
+        return jpaRepository.findRevision(ownerId).orElse(0L);
+    }
+
+    @Override
+    public List<Item> findChangedByOwnerId(Long ownerId, long sinceRevision, long untilRevision, int limit) {
+        return jpaRepository.findChanged(ownerId, sinceRevision, untilRevision, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Map<Long, List<Item>> findAllByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return jpaRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+    }
+
+    @Override
+    public long count() {
+        return jpaRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public Item update(Item item) {
+        if (!jpaRepository.existsById(item.getId())) {
+            throw new NoSuchElementException("Вещь с id " + item.getId() + " не найдена");
+        }
+        assignRevisions(List.of(item));
+        return jpaRepository.save(item);
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        jpaRepository.deleteById(id);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByOwnerId(Long ownerId) {
+        jpaRepository.deleteAllByOwnerId(ownerId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<Long> ids) {
+        jpaRepository.deleteAllByIdInBatch(ids);
+    }
+
+    /**
+     * Вещи удаляются базой каскадно вместе с владельцем, а вещь удалённого владельца не пропустит
+     * внешний ключ, поэтому отдельная отметка не нужна.
+     */
+    @Override
+    public void markOwnerDeleted(Long ownerId) {
+    }
+
+    @Override
+    public List<Item> search(String text, PageQuery page) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return jpaRepository.search(likePattern(text), page.afterId(), OffsetPageRequest.of(page));
+    }
+
+    private String likePattern(String text) {
+        return text.toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+    /**
+     * Ревизии назначаются из счётчика в строке владельца: для каждого владельца счётчик сдвигается
+     * одним запросом на число его вещей, и вещи получают последние номера по порядку.
+     */
+    private void assignRevisions(List<Item> items) {
+        Map<Long, List<Item>> byOwner = items.stream()
+                .collect(Collectors.groupingBy(item -> item.getOwner().getId(), LinkedHashMap::new,
+                        Collectors.toList()));
+        byOwner.forEach((ownerId, owned) -> {
+            jpaRepository.advanceRevision(ownerId, owned.size());
+            long revision = jpaRepository.findRevision(ownerId)
+                    .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"))
+                    - owned.size();
+            for (Item item : owned) {
+                item.setRevision(++revision);
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс n-грамм (длиной от 1 до 3 символов) по названию и описанию вещей.
+ * Для запросов длиной до трёх символов список по грамме уже является точным ответом,
+ * для более длинных запросов пересекаются списки триграмм и кандидаты проверяются через contains.
+ * Вызовы put/remove для одной и той же вещи должны быть упорядочены вызывающей стороной,
+ * списки по разным граммам обновляются независимо и читаются без блокировок.
+ */
+class ItemSearchIndex {
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedText> texts = new ConcurrentHashMap<>();
+
+    /**
+     * Индексирует текущий текст вещи и возвращает ранее проиндексированный текст или null.
+     */
+    IndexedText put(Item item) {
+        IndexedText newText = new IndexedText(lowerCase(item.getName()), lowerCase(item.getDescription()));
+        IndexedText oldText = texts.put(item.getId(), newText);
+
+        Set<String> newGrams = newText.grams();
+        Set<String> oldGrams = oldText == null ? Collections.emptySet() : oldText.grams();
+
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, item.getId());
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                addPosting(gram, item.getId());
+            }
+        }
+        return oldText;
+    }
+
+    IndexedText remove(Long id) {
+        IndexedText oldText = texts.remove(id);
+        if (oldText == null) {
+            return null;
+        }
+        for (String gram : oldText.grams()) {
+            removePosting(gram, id);
+        }
+        return oldText;
+    }
+
+    /**
+     * Возвращает в порядке возрастания id вещей с id больше afterId, у которых название или описание
+     * содержит text без учёта регистра. Поток ленивый: пересечение списков и проверка кандидатов
+     * выполняются только для тех элементов, которые реально будут прочитаны.
+     */
+    Stream<Long> search(String text, long afterId) {
+        String query = text.toLowerCase();
+
+        if (query.length() <= MAX_GRAM_LENGTH) {
+            Posting posting = postings.get(query);
+            return posting == null ? Stream.empty() : posting.ids.tailSet(afterId, false).stream();
+        }
+
+        List<Posting> lists = new ArrayList<>();
+        for (String gram : grams(query, MAX_GRAM_LENGTH, MAX_GRAM_LENGTH)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return Stream.empty();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(posting -> posting.size));
+
+        return lists.get(0).ids.tailSet(afterId, false).stream()
+                .filter(id -> containsInAll(lists, id))
+                .filter(id -> {
+                    IndexedText indexed = texts.get(id);
+                    return indexed != null && indexed.contains(query);
+                });
+    }
+
+    private boolean containsInAll(List<Posting> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPosting(String gram, Long id) {
+        postings.compute(gram, (key, posting) -> {
+            Posting result = posting == null ? new Posting() : posting;
+            if (result.ids.add(id)) {
+                result.size++;
+            }
+            return result;
+        });
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (key, posting) -> {
+            if (posting.ids.remove(id)) {
+                posting.size--;
+            }
+            return posting.size == 0 ? null : posting;
+        });
+    }
+
+    private static String lowerCase(String source) {
+        return source == null ? null : source.toLowerCase();
+    }
+
+    private static Set<String> grams(String source, int minLength, int maxLength) {
+        Set<String> result = new HashSet<>();
+        if (source == null) {
+            return result;
+        }
+        for (int start = 0; start < source.length(); start++) {
+            for (int length = minLength; length <= maxLength && start + length <= source.length(); length++) {
+                result.add(source.substring(start, start + length));
+            }
+        }
+        return result;
+    }
+
+    private static class Posting {
+        private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        private volatile int size;
+    }
+
+    record IndexedText(String name, String description) {
+
+        Set<String> grams() {
+            Set<String> result = ItemSearchIndex.grams(name, 1, MAX_GRAM_LENGTH);
+            result.addAll(ItemSearchIndex.grams(description, 1, MAX_GRAM_LENGTH));
+            return result;
+        }
+
+        boolean contains(String query) {
+            return name != null && name.contains(query) || description != null && description.contains(query);
+        }
+    }
+}
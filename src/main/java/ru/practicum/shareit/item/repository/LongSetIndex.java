@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Arrays;
+
+/**
+ * Индекс «ключ long → отсортированное множество long» без упаковки: открытая адресация с линейным
+ * пробированием по массиву ключей, значения — отсортированные массивы с запасом ёмкости.
+ * Ключ 0 зарезервирован под пустую ячейку (id в хранилище начинаются с 1). Не потокобезопасен.
+ */
+class LongSetIndex {
+    private static final long EMPTY = 0;
+    private static final long[] NO_VALUES = new long[0];
+
+    private long[] keys = new long[16];
+    private long[][] values = new long[16][];
+    private int[] sizes = new int[16];
+    private int count;
+
+    void add(long key, long value) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            if ((count + 1) * 4L > keys.length * 3L) {
+                rehash(keys.length * 2);
+                slot = find(key);
+            }
+            keys[slot] = key;
+            values[slot] = new long[2];
+            count++;
+        }
+        long[] set = values[slot];
+        int size = sizes[slot];
+        int position = Arrays.binarySearch(set, 0, size, value);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == set.length) {
+            set = Arrays.copyOf(set, size + (size >> 1) + 1);
+            values[slot] = set;
+        }
+        System.arraycopy(set, position, set, position + 1, size - position);
+        set[position] = value;
+        sizes[slot] = size + 1;
+    }
+
+    void remove(long key, long value) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+        long[] set = values[slot];
+        int size = sizes[slot];
+        int position = Arrays.binarySearch(set, 0, size, value);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(set, position + 1, set, position, size - position - 1);
+        sizes[slot] = size - 1;
+        if (size == 1) {
+            delete(slot);
+        }
+    }
+
+    /**
+     * Возвращает копию множества по ключу в порядке возрастания.
+     */
+    long[] get(long key) {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? NO_VALUES : Arrays.copyOf(values[slot], sizes[slot]);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Удаление со сдвигом назад: последующие ключи цепочки переносятся на освободившееся место,
+     * поэтому надгробия не нужны.
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                sizes[hole] = sizes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        sizes[hole] = 0;
+        count--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[][] oldValues = values;
+        int[] oldSizes = sizes;
+        keys = new long[capacity];
+        values = new long[capacity][];
+        sizes = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                sizes[slot] = oldSizes[i];
+            }
+        }
+    }
+
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
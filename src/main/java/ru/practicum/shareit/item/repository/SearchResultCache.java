@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.practicum.shareit.pagination.PageQuery;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Кеш id вещей, найденных по тексту (в нижнем регистре) и странице, ограниченный суммарным числом хранимых id.
+ * Каждый ключ учтён в индексе по префиксу запроса длиной до трёх символов: если запрос входит в текст вещи,
+ * то и его префикс входит, поэтому при изменении вещи проверяются только запросы с префиксами из её текста.
+ * Регистрация и снятие ключа с учёта выполняются внутри атомарных операций Caffeine над этим ключом.
+ */
+class SearchResultCache {
+    private static final int PREFIX_LENGTH = 3;
+
+    private final Cache<Key, List<Long>> results;
+    private final Map<String, Set<Key>> keysByPrefix = new ConcurrentHashMap<>();
+
+    SearchResultCache(long maxCachedIds) {
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxCachedIds)
+                .<Key, List<Long>>weigher((key, ids) -> ids.size() + 1)
+                .evictionListener((key, ids, cause) -> {
+                    if (key != null) {
+                        unregister(key);
+                    }
+                })
+                .build();
+    }
+
+    List<Long> get(String lowerCaseText, PageQuery page, Supplier<List<Long>> loader) {
+        Key key = new Key(lowerCaseText, page.afterId(), page.offset(), page.size());
+        return results.get(key, k -> {
+            register(k);
+            return List.copyOf(loader.get());
+        });
+    }
+
+    /**
+     * Сбрасывает закешированные запросы, которые являются подстрокой переданного текста вещи в нижнем регистре.
+     */
+    void invalidateMatching(String lowerCaseText) {
+        if (lowerCaseText == null) {
+            return;
+        }
+        Set<String> seen = new HashSet<>();
+        for (int start = 0; start < lowerCaseText.length(); start++) {
+            for (int length = 1; length <= PREFIX_LENGTH && start + length <= lowerCaseText.length(); length++) {
+                String prefix = lowerCaseText.substring(start, start + length);
+                Set<Key> keys = seen.add(prefix) ? keysByPrefix.get(prefix) : null;
+                if (keys == null) {
+                    continue;
+                }
+                for (Key key : keys) {
+                    if (lowerCaseText.contains(key.text())) {
+                        invalidate(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Суммарный вес хранимых результатов (число id плюс единица на ключ) после отложенного обслуживания Caffeine.
+     */
+    long weightedSize() {
+        results.cleanUp();
+        return results.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    /**
+     * Число ключей, учтённых в индексе по префиксам.
+     */
+    int trackedKeys() {
+        return keysByPrefix.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void invalidate(Key key) {
+        results.asMap().computeIfPresent(key, (k, ids) -> {
+            unregister(k);
+            return null;
+        });
+    }
+
+    private void register(Key key) {
+        keysByPrefix.compute(key.prefix(), (prefix, keys) -> {
+            Set<Key> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void unregister(Key key) {
+        keysByPrefix.computeIfPresent(key.prefix(), (prefix, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Key(String text, long afterId, int offset, int size) {
+
+        String prefix() {
+            return text.substring(0, Math.min(PREFIX_LENGTH, text.length()));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventListener;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Обновляет {@link RankedSearchIndex} по событиям вещей. Из пакета берутся различные id, и для каждого
+ * индексируется текущее состояние вещи из хранилища (или вещь удаляется из индекса, если её уже нет),
+ * поэтому несколько изменений одной вещи в пакете сводятся к одному обновлению.
+ * Если пакет не удалось обработать и после повторов, вещи из него переиндексируются по одной, а те, что
+ * снова не удались, запоминаются и переиндексируются вместе со следующим пакетом, чтобы индекс
+ * не расходился с хранилищем. Все методы вызываются из одного потока потребителя.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankedIndexUpdater implements DomainEventListener {
+    private final ItemRepository itemRepository;
+    private final RankedSearchIndex rankedSearchIndex;
+    private final Set<Long> staleIds = new LinkedHashSet<>();
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        Set<Long> itemIds = new LinkedHashSet<>(staleIds);
+        itemIds.addAll(itemIds(events));
+        for (Long id : itemIds) {
+            reindex(id);
+            staleIds.remove(id);
+        }
+    }
+
+    @Override
+    public void onFailure(List<DomainEvent> events, RuntimeException cause) {
+        Set<Long> itemIds = new LinkedHashSet<>(staleIds);
+        itemIds.addAll(itemIds(events));
+        for (Long id : itemIds) {
+            try {
+                reindex(id);
+                staleIds.remove(id);
+            } catch (RuntimeException e) {
+                staleIds.add(id);
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            log.warn("Не удалось переиндексировать вещи {}, повтор со следующим пакетом", staleIds);
+        }
+    }
+
+    private void reindex(Long id) {
+        itemRepository.findById(id)
+                .ifPresentOrElse(rankedSearchIndex::put, () -> rankedSearchIndex.remove(id));
+    }
+
+    private static Set<Long> itemIds(List<DomainEvent> events) {
+        Set<Long> itemIds = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            if (event.entityType() == DomainEvent.EntityType.ITEM) {
+                itemIds.add(event.entityId());
+            }
+        }
+        return itemIds;
+    }
+}
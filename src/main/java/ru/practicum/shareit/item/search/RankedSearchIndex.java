@@ -0,0 +1,230 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Инвертированный индекс основ слов доступных вещей для поиска с ранжированием по BM25F:
+ * частота термина в названии учитывается с весом NAME_WEIGHT, в описании — с весом 1, каждое поле
+ * нормируется на свою среднюю длину. Из всех совпадений отбираются лучшие from + size через
+ * ограниченную кучу, полная сортировка не выполняется. При нечётком поиске термины запроса,
+ * которых нет в словаре, расширяются словами на расстоянии Левенштейна 1 (от 4 символов) или 2 (от 8)
+ * со штрафом 1 / (1 + расстояние).
+ * Индекс заполняется из хранилища при старте, а затем обновляется по событиям вещей ({@link RankedIndexUpdater}).
+ */
+@Component
+@RequiredArgsConstructor
+public class RankedSearchIndex implements SmartInitializingSingleton {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, TermFrequency>> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> termsByLength = new ConcurrentHashMap<>();
+    private final AtomicLong nameLengthTotal = new AtomicLong();
+    private final AtomicLong descriptionLengthTotal = new AtomicLong();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        itemRepository.findAll().forEach(this::put);
+    }
+
+    /**
+     * Индексирует вещь; недоступные вещи в ранжированный поиск не попадают и из индекса удаляются.
+     */
+    public void put(Item item) {
+        Document document = Boolean.TRUE.equals(item.getAvailable())
+                ? new Document(TextAnalyzer.terms(item.getName()), TextAnalyzer.terms(item.getDescription()))
+                : null;
+        documents.compute(item.getId(), (id, existing) -> {
+            if (existing != null) {
+                unindex(id, existing);
+            }
+            if (document != null) {
+                index(id, document);
+            }
+            return document;
+        });
+    }
+
+    public void remove(Long id) {
+        documents.computeIfPresent(id, (key, existing) -> {
+            unindex(key, existing);
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает id вещей по убыванию релевантности (при равенстве — по возрастанию id), пропуская первые from.
+     */
+    public List<Long> search(String text, int from, int size, boolean fuzzy) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.terms(text));
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int documentCount = documents.size();
+        double averageName = Math.max(1.0, (double) nameLengthTotal.get() / documentCount);
+        double averageDescription = Math.max(1.0, (double) descriptionLengthTotal.get() / documentCount);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String queryTerm : queryTerms) {
+            Map<String, Double> expansions = fuzzy ? expand(queryTerm) : Map.of(queryTerm, 1.0);
+            for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+                Map<Long, TermFrequency> posting = postings.get(expansion.getKey());
+                if (posting == null) {
+                    continue;
+                }
+                int matching = posting.size();
+                double idf = Math.log(1 + (documentCount - matching + 0.5) / (matching + 0.5));
+                for (Map.Entry<Long, TermFrequency> entry : posting.entrySet()) {
+                    Document document = documents.get(entry.getKey());
+                    if (document == null) {
+                        continue;
+                    }
+                    double frequency = NAME_WEIGHT * normalize(entry.getValue().name(), document.nameLength(), averageName)
+                            + normalize(entry.getValue().description(), document.descriptionLength(), averageDescription);
+                    double score = expansion.getValue() * idf * frequency * (K1 + 1) / (frequency + K1);
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        }
+        return topK(scores, from, size);
+    }
+
+    private static double normalize(int frequency, int length, double averageLength) {
+        return frequency / (1 - B + B * length / averageLength);
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int from, int size) {
+        long limit = Math.min((long) from + size, scores.size());
+        if (limit <= from) {
+            return Collections.emptyList();
+        }
+        Comparator<Map.Entry<Long, Double>> better = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>((int) limit, better);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (better.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        Long[] ordered = new Long[heap.size()];
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            ordered[i] = heap.poll().getKey();
+        }
+        return Arrays.asList(ordered).subList(from, ordered.length);
+    }
+
+    private Map<String, Double> expand(String term) {
+        if (postings.containsKey(term)) {
+            return Map.of(term, 1.0);
+        }
+        int maxDistance = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        Map<String, Double> result = new HashMap<>();
+        for (int length = term.length() - maxDistance; length <= term.length() + maxDistance; length++) {
+            for (String candidate : termsByLength.getOrDefault(length, Collections.emptySet())) {
+                int distance = distance(term, candidate, maxDistance);
+                if (distance <= maxDistance) {
+                    result.put(candidate, 1.0 / (1 + distance));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Расстояние Левенштейна с отсечением: если оно заведомо больше limit, возвращается limit + 1.
+     */
+    static int distance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    private void index(Long id, Document document) {
+        nameLengthTotal.addAndGet(document.nameLength());
+        descriptionLengthTotal.addAndGet(document.descriptionLength());
+        document.frequencies().forEach((term, frequency) -> postings.compute(term, (key, posting) -> {
+            Map<Long, TermFrequency> result = posting;
+            if (result == null) {
+                result = new ConcurrentHashMap<>();
+                termsByLength.compute(key.length(), (length, terms) -> {
+                    Set<String> lengthTerms = terms == null ? ConcurrentHashMap.newKeySet() : terms;
+                    lengthTerms.add(key);
+                    return lengthTerms;
+                });
+            }
+            result.put(id, frequency);
+            return result;
+        }));
+    }
+
+    private void unindex(Long id, Document document) {
+        nameLengthTotal.addAndGet(-document.nameLength());
+        descriptionLengthTotal.addAndGet(-document.descriptionLength());
+        document.frequencies().keySet().forEach(term -> postings.computeIfPresent(term, (key, posting) -> {
+            posting.remove(id);
+            if (!posting.isEmpty()) {
+                return posting;
+            }
+            termsByLength.computeIfPresent(key.length(), (length, terms) -> {
+                terms.remove(key);
+                return terms.isEmpty() ? null : terms;
+            });
+            return null;
+        }));
+    }
+
+    private record TermFrequency(int name, int description) {
+    }
+
+    private record Document(int nameLength, int descriptionLength, Map<String, TermFrequency> frequencies) {
+
+        Document(List<String> nameTerms, List<String> descriptionTerms) {
+            this(nameTerms.size(), descriptionTerms.size(), frequencies(nameTerms, descriptionTerms));
+        }
+
+        private static Map<String, TermFrequency> frequencies(List<String> nameTerms, List<String> descriptionTerms) {
+            Map<String, TermFrequency> result = new HashMap<>();
+            nameTerms.forEach(term -> result.merge(term, new TermFrequency(1, 0), Document::sum));
+            descriptionTerms.forEach(term -> result.merge(term, new TermFrequency(0, 1), Document::sum));
+            return result;
+        }
+
+        private static TermFrequency sum(TermFrequency a, TermFrequency b) {
+            return new TermFrequency(a.name() + b.name(), a.description() + b.description());
+        }
+    }
+}
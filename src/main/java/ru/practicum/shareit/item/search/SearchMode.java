@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum SearchMode {
+    SUBSTRING, RANKED;
+
+    public static SearchMode from(String value) {
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неизвестный режим поиска: " + value);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбивает текст на слова и приводит их к основе лёгким стеммером: для слов с кириллицей отбрасывается
+ * одно падежное, родовое или глагольное окончание, для латиницы — множественное число и -ing/-ed.
+ * Основа не короче трёх символов, поэтому короткие слова остаются как есть.
+ */
+@UtilityClass
+public class TextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final String[] RUSSIAN_ENDINGS = {
+        "иями", "ями", "ами", "ией", "иям", "ием", "иях", "ого", "его", "ому", "ему", "ыми", "ими",
+        "ать", "ять", "ить", "еть", "ует", "ают", "яют",
+        "ая", "яя", "ое", "ее", "ые", "ие", "ой", "ей", "ий", "ый", "ом", "ем", "ам", "ям", "ах", "ях",
+        "ов", "ев", "ию", "ью", "ия", "ья", "ют", "ет", "ит",
+        "а", "я", "о", "е", "и", "ы", "у", "ю", "ь", "й"
+    };
+
+    public static List<String> terms(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(stem(normalized.substring(start, i)));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    static String stem(String word) {
+        return isCyrillic(word) ? stemRussian(word) : stemEnglish(word);
+    }
+
+    private static String stemRussian(String word) {
+        for (String ending : RUSSIAN_ENDINGS) {
+            if (word.endsWith(ending) && word.length() - ending.length() >= MIN_STEM_LENGTH) {
+                return word.substring(0, word.length() - ending.length());
+            }
+        }
+        return word;
+    }
+
+    private static String stemEnglish(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses") || word.endsWith("xes") || word.endsWith("ches") || word.endsWith("shes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && word.length() > MIN_STEM_LENGTH + 1) {
+            return word.substring(0, word.length() - 1);
+        }
+        if (word.endsWith("ing") && word.length() - 3 >= MIN_STEM_LENGTH + 1) {
+            return word.substring(0, word.length() - 3);
+        }
+        if (word.endsWith("ed") && word.length() - 2 >= MIN_STEM_LENGTH + 1) {
+            return word.substring(0, word.length() - 2);
+        }
+        return word;
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
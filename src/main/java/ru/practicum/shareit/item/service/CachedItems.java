@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Кеш готовых ItemDto по id вещи. Бронирования в него не входят: они меняются независимо от вещи
+ * и добавляются к ответу владельца при каждом запросе. Отдельный бин нужен, чтобы чтение из ItemServiceImpl
+ * шло через прокси кеша. Записи сбрасываются в ItemServiceImpl.update/delete и в OwnedItemsCleanup; при
+ * sync = true загрузка идёт под блокировкой ключа в Caffeine, поэтому evict, пришедший во время загрузки,
+ * дожидается её и устаревшее значение в кеше не остаётся.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachedItems {
+    private final ItemRepository itemRepository;
+
+    /**
+     * Возвращаемый DTO общий для всех читателей и не должен изменяться.
+     */
+    @Cacheable(cacheNames = CacheNames.ITEMS, key = "#id", sync = true)
+    public ItemDto getById(Long id) {
+        return ItemMapper.toItemDto(itemRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Вещь с id " + id + " не найдена")));
+    }
+}
@@ -1,20 +1,43 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemChanges;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemService {
     ItemDto create(ItemDto itemDto, Long ownerId);
 
-    ItemDto getById(Long id);
+    List<BatchResultDto<ItemDto>> createAll(List<ItemDto> itemDtos, Long ownerId);
 
-    List<ItemDto> getAllByOwnerId(Long ownerId);
+    /**
+     * Бронирования в ответ попадают, только если userId — владелец вещи.
+     */
+    ItemDto getById(Long id, Long userId);
+
+    List<ItemView> getAllByOwnerId(Long ownerId, PageQuery page);
+
+    Stream<ItemView> streamAllByOwnerId(Long ownerId);
+
+    /**
+     * Вещи владельца, созданные или изменённые после ревизии sinceRevision, по возрастанию ревизии.
+     * Удалённые вещи не возвращаются.
+     */
+    ItemChanges getChangesByOwnerId(Long ownerId, long sinceRevision, int limit);
 
     ItemDto update(Long id, ItemUpdateDto itemDto, Long ownerId);
 
     void delete(Long id);
 
-    List<ItemDto> search(String text);
+    List<Item> search(String text, PageQuery page);
+
+    List<Item> searchRanked(String text, int from, int size, boolean fuzzy);
+
+    Stream<Item> streamSearch(String text);
 }
@@ -1,25 +1,50 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.item.dto.ItemChanges;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.RankedSearchIndex;
+import ru.practicum.shareit.pagination.KeysetStreams;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final CachedItems cachedItems;
+    private final MeterRegistry meterRegistry;
+    private final BatchValidator batchValidator;
+    private final RankedSearchIndex rankedSearchIndex;
+    private final DomainEventPublisher eventPublisher;
 
     @Override
     public ItemDto create(ItemDto itemDto, Long ownerId) {
@@ -27,28 +52,110 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"));
 
         Item item = ItemMapper.toItem(itemDto, owner);
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NoSuchElementException(
+                            "Запрос с id " + itemDto.getRequestId() + " не найден")));
+        }
         Item savedItem = itemRepository.save(item);
+        eventPublisher.publish(DomainEvent.itemCreated(savedItem.getId(), savedItem.getVersion()));
         return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
-    public ItemDto getById(Long id) {
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Вещь с id " + id + " не найдена"));
-        return ItemMapper.toItemDto(item);
+    public List<BatchResultDto<ItemDto>> createAll(List<ItemDto> itemDtos, Long ownerId) {
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"));
+
+        List<BatchResultDto<ItemDto>> results = new ArrayList<>(Collections.nCopies(itemDtos.size(), null));
+        Map<Long, Optional<ItemRequest>> requests = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            Optional<String> violations = batchValidator.validate(itemDto);
+            if (violations.isPresent()) {
+                results.set(i, BatchResultDto.failed(i, HttpStatus.BAD_REQUEST, violations.get()));
+                continue;
+            }
+            Item item = ItemMapper.toItem(itemDto, owner);
+            if (itemDto.getRequestId() != null) {
+                Optional<ItemRequest> request = requests.computeIfAbsent(itemDto.getRequestId(),
+                        itemRequestRepository::findById);
+                if (request.isEmpty()) {
+                    results.set(i, BatchResultDto.failed(i, HttpStatus.NOT_FOUND,
+                            "Запрос с id " + itemDto.getRequestId() + " не найден"));
+                    continue;
+                }
+                item.setRequest(request.get());
+            }
+            accepted.add(i);
+            items.add(item);
+        }
+
+        List<Item> saved = itemRepository.saveAll(items);
+        eventPublisher.publishAll(saved.stream()
+                .map(savedItem -> DomainEvent.itemCreated(savedItem.getId(), savedItem.getVersion()))
+                .toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            results.set(accepted.get(i), BatchResultDto.created(accepted.get(i), ItemMapper.toItemDto(saved.get(i))));
+        }
+        return results;
     }
 
     @Override
-    public List<ItemDto> getAllByOwnerId(Long ownerId) {
+    public ItemDto getById(Long id, Long userId) {
+        ItemDto cached = cachedItems.getById(id);
+        if (!cached.getOwnerId().equals(userId)) {
+            return cached;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return ItemMapper.withBookings(cached,
+                bookingRepository.findLastBooking(id, now).orElse(null),
+                bookingRepository.findNextBooking(id, now).orElse(null));
+    }
+
+    /**
+     * Вещи отдаются сущностями из хранилища и пишутся в JSON без промежуточных DTO; на вещь создаётся
+     * только ItemView с бронированиями.
+     */
+    @Override
+    public List<ItemView> getAllByOwnerId(Long ownerId, PageQuery page) {
         userRepository.findById(ownerId)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"));
 
-        return itemRepository.findAllByOwnerId(ownerId).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return withBookings(itemRepository.findAllByOwnerId(ownerId, page));
     }
 
     @Override
+    public Stream<ItemView> streamAllByOwnerId(Long ownerId) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"));
+
+        return KeysetStreams.stream(page -> itemRepository.findAllByOwnerId(ownerId, page), Item::getId)
+                .map(this::withBookings);
+    }
+
+    /**
+     * Ревизия владельца читается до вещей и ограничивает выборку сверху: все вещи с ревизией не больше неё
+     * уже видны, поэтому изменения, попавшие между запросами клиента, не теряются. Если выдача обрезана
+     * по limit, продолжать нужно с ревизии последней выданной вещи.
+     */
+    @Override
+    public ItemChanges getChangesByOwnerId(Long ownerId, long sinceRevision, int limit) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + ownerId + " не найден"));
+
+        long revision = itemRepository.findRevisionByOwnerId(ownerId);
+        List<Item> changed = itemRepository.findChangedByOwnerId(ownerId, sinceRevision, revision, limit);
+        if (!changed.isEmpty() && changed.size() == limit) {
+            revision = changed.get(changed.size() - 1).getRevision();
+        }
+        return new ItemChanges(withBookings(changed), revision);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheNames.ITEMS, key = "#id")
     public ItemDto update(Long id, ItemUpdateDto itemDto, Long ownerId) {
         Item existingItem = itemRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Вещь с id " + id + " не найдена"));
@@ -57,29 +164,67 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("Только владелец может редактировать вещь");
         }
 
+        Item item = ItemMapper.copyOf(existingItem);
         if (itemDto.getName() != null) {
-            existingItem.setName(itemDto.getName());
+            item.setName(itemDto.getName());
         }
         if (itemDto.getDescription() != null) {
-            existingItem.setDescription(itemDto.getDescription());
+            item.setDescription(itemDto.getDescription());
         }
         if (itemDto.getAvailable() != null) {
-            existingItem.setAvailable(itemDto.getAvailable());
+            item.setAvailable(itemDto.getAvailable());
         }
 
-        Item updatedItem = itemRepository.update(existingItem);
+        Item updatedItem = itemRepository.update(item);
+        eventPublisher.publish(DomainEvent.itemUpdated(updatedItem.getId(), updatedItem.getVersion()));
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.ITEMS, key = "#id")
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        eventPublisher.publish(DomainEvent.itemDeleted(id));
+    }
+
+    /**
+     * Найденные вещи возвращаются как есть: хранилище отдаёт опубликованные экземпляры, которые не меняются.
+     */
+    @Override
+    public List<Item> search(String text, PageQuery page) {
+        List<Item> found = itemRepository.search(text, page);
+        meterRegistry.summary("shareit.items.search.results", "mode", "substring").record(found.size());
+        return found;
     }
 
     @Override
-    public List<ItemDto> search(String text) {
-        return itemRepository.search(text).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+    public List<Item> searchRanked(String text, int from, int size, boolean fuzzy) {
+        List<Long> ids = rankedSearchIndex.search(text, from, size, fuzzy);
+        List<Item> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            itemRepository.findById(id).ifPresent(found::add);
+        }
+        meterRegistry.summary("shareit.items.search.results", "mode", "ranked").record(found.size());
+        return found;
+    }
+
+    @Override
+    public Stream<Item> streamSearch(String text) {
+        return KeysetStreams.stream(page -> itemRepository.search(text, page), Item::getId);
+    }
+
+    private List<ItemView> withBookings(List<Item> items) {
+        List<ItemView> views = new ArrayList<>(items.size());
+        for (Item item : items) {
+            views.add(withBookings(item));
+        }
+        return views;
+    }
+
+    private ItemView withBookings(Item item) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ItemView(item,
+                bookingRepository.findLastBooking(item.getId(), now).orElse(null),
+                bookingRepository.findNextBooking(item.getId(), now).orElse(null));
     }
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Удаление вещей пользователя вместе с ним. Вещи находятся по индексу владельца, без просмотра всего каталога.
+ * Сначала владелец отмечается удаляемым: его вещи скрываются от чтения, а новые для него не создаются,
+ * поэтому список вещей, взятый после отметки, полон. Отметка пишется в журнал, и удаление, оборванное
+ * остановкой, доводится при восстановлении хранилища.
+ * При shareit.users.delete.async-items-cleanup=true вещи вычищаются из кеша и удаляются в фоне пакетами
+ * по {@value #BATCH_SIZE}, чтобы запрос на удаление пользователя не ждал.
+ */
+@Slf4j
+@Component
+public class OwnedItemsCleanup {
+    static final int BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final boolean async;
+    private final Executor executor;
+
+    public OwnedItemsCleanup(ItemRepository itemRepository,
+                             DomainEventPublisher eventPublisher,
+                             CacheManager cacheManager,
+                             @Value("${shareit.users.delete.async-items-cleanup:false}") boolean async,
+                             @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.async = async;
+        this.executor = executor;
+    }
+
+    /**
+     * Вызывается до удаления самого пользователя: после возврата его вещи уже не видны при чтении.
+     */
+    public void removeItemsOf(Long ownerId) {
+        itemRepository.markOwnerDeleted(ownerId);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        if (!async) {
+            itemRepository.deleteAllByOwnerId(ownerId);
+            publishDeleted(itemIds);
+            evict(itemIds);
+            return;
+        }
+        evict(itemIds);
+        executor.execute(() -> removeInBatches(ownerId, itemIds));
+    }
+
+    /**
+     * Если удаление оборвалось, оставшиеся вещи остаются скрытыми и удаляются при следующем
+     * восстановлении хранилища.
+     */
+    private void removeInBatches(Long ownerId, List<Long> itemIds) {
+        try {
+            for (int from = 0; from < itemIds.size(); from += BATCH_SIZE) {
+                List<Long> batch = itemIds.subList(from, Math.min(itemIds.size(), from + BATCH_SIZE));
+                itemRepository.deleteAllById(batch);
+                publishDeleted(batch);
+            }
+            log.debug("Удалено {} вещей пользователя {}", itemIds.size(), ownerId);
+        } catch (RuntimeException e) {
+            log.error("Не удалось удалить вещи пользователя {}", ownerId, e);
+        }
+    }
+
+    private void publishDeleted(List<Long> itemIds) {
+        eventPublisher.publishAll(itemIds.stream()
+                .map(DomainEvent::itemDeleted)
+                .toList());
+    }
+
+    private void evict(List<Long> itemIds) {
+        Cache itemCache = cacheManager.getCache(CacheNames.ITEMS);
+        if (itemCache != null) {
+            itemIds.forEach(itemCache::evict);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Размеры каталога вещей и списка пользователей, снимаются при каждом чтении метрик.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogueMetrics implements MeterBinder {
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.items.count", itemRepository, ItemRepository::count)
+                .description("Количество вещей в каталоге")
+                .register(registry);
+        Gauge.builder("shareit.users.count", userRepository, UserRepository::count)
+                .description("Количество зарегистрированных пользователей")
+                .register(registry);
+    }
+}
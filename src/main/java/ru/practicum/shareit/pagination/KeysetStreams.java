@@ -0,0 +1,53 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Ленивый поток поверх постраничного источника: следующая порция запрашивается по курсору
+ * только после того, как предыдущая прочитана, поэтому в памяти одновременно держится не больше chunkSize элементов.
+ */
+@UtilityClass
+public class KeysetStreams {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    public static <T> Stream<T> stream(Function<PageQuery, List<T>> fetcher, Function<T, Long> idExtractor) {
+        return stream(DEFAULT_CHUNK_SIZE, fetcher, idExtractor);
+    }
+
+    public static <T> Stream<T> stream(int chunkSize, Function<PageQuery, List<T>> fetcher,
+                                       Function<T, Long> idExtractor) {
+        Iterator<T> iterator = new Iterator<>() {
+            private PageQuery page = PageQuery.of(0, chunkSize, null);
+            private Iterator<T> chunk = Collections.emptyIterator();
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && !exhausted) {
+                    List<T> content = fetcher.apply(page);
+                    exhausted = content.size() < chunkSize;
+                    if (!content.isEmpty()) {
+                        page = page.after(idExtractor.apply(content.get(content.size() - 1)));
+                    }
+                    chunk = content.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
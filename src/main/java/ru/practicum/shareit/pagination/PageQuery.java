@@ -0,0 +1,50 @@
+package ru.practicum.shareit.pagination;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Параметры страницы: курсор (id последнего элемента предыдущей страницы), смещение от курсора и размер.
+ */
+public record PageQuery(long afterId, int offset, int size) {
+    private static final PageQuery UNPAGED = new PageQuery(0, 0, Integer.MAX_VALUE);
+    private static final String CURSOR_PREFIX = "after:";
+
+    public static PageQuery unpaged() {
+        return UNPAGED;
+    }
+
+    public static PageQuery of(Integer from, Integer size, String cursor) {
+        return new PageQuery(
+                cursor == null ? 0 : decodeCursor(cursor),
+                from == null ? 0 : from,
+                size == null ? Integer.MAX_VALUE : size);
+    }
+
+    public boolean isPaged() {
+        return size != Integer.MAX_VALUE;
+    }
+
+    public PageQuery after(long id) {
+        return new PageQuery(id, 0, size);
+    }
+
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new ValidationException("Некорректный курсор: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@UtilityClass
+public class PageResponses {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static <T> ResponseEntity<List<T>> of(List<T> content, PageQuery page, Function<T, Long> idExtractor) {
+        return ok(content, page, idExtractor).body(content);
+    }
+
+    /**
+     * Ответ 200 с заголовком следующего курсора, к которому можно добавить свои заголовки до body.
+     */
+    public static <T> ResponseEntity.BodyBuilder ok(List<T> content, PageQuery page, Function<T, Long> idExtractor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isPaged() && !content.isEmpty() && content.size() == page.size()) {
+            Long lastId = idExtractor.apply(content.get(content.size() - 1));
+            response.header(NEXT_CURSOR_HEADER, PageQuery.encodeCursor(lastId));
+        }
+        return response;
+    }
+}
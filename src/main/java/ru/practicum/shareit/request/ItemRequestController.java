@@ -1,12 +1,56 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.pagination.PageResponses;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Validated
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto create(
+            @Valid @RequestBody ItemRequestCreateDto requestDto,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long requestorId) {
+        return itemRequestService.create(requestDto, requestorId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getAllByRequestorId(
+            @RequestHeader("X-Sharer-User-Id") @Positive Long requestorId) {
+        return itemRequestService.getAllByRequestorId(requestorId);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getAllOfOthers(
+            @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        PageQuery page = PageQuery.of(from, size, cursor);
+        return PageResponses.of(itemRequestService.getAllOfOthers(userId, page), page, ItemRequestDto::getId);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getById(
+            @PathVariable Long requestId,
+            @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return itemRequestService.getById(requestId, userId);
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class ItemRequestCreateDto {
+    @NotBlank(message = "Описание запроса не может быть пустым")
+    private String description;
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.request.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@UtilityClass
+public class ItemRequestMapper {
+    public static ItemRequestDto toItemRequestDto(ItemRequest request, List<Item> answers) {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setId(request.getId());
+        dto.setDescription(request.getDescription());
+        dto.setCreated(request.getCreated());
+        dto.setItems(answers.stream()
+                .map(ItemRequestMapper::toItemAnswerDto)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    public static ItemAnswerDto toItemAnswerDto(Item item) {
+        ItemAnswerDto dto = new ItemAnswerDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setOwnerId(item.getOwner().getId());
+        return dto;
+    }
+
+    public static ItemRequest toItemRequest(ItemRequestCreateDto dto, User requestor, LocalDateTime created) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription(dto.getDescription());
+        request.setRequestor(requestor);
+        request.setCreated(created);
+        return request;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRequestJpaRepository extends JpaRepository<ItemRequest, Long> {
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(Long requestorId);
+
+    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id <> :requestorId " +
+            "and (r.created < :created or r.created = :created and r.id < :id) order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdNotBefore(@Param("requestorId") Long requestorId,
+                                                    @Param("created") LocalDateTime created, @Param("id") Long id,
+                                                    Pageable pageable);
+
+    @Modifying
+    @Query("delete from ItemRequest r where r.requestor.id = :requestorId")
+    int deleteAllByRequestorId(@Param("requestorId") Long requestorId);
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.repository;
+
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository {
+    ItemRequest save(ItemRequest request);
+
+    Optional<ItemRequest> findById(Long id);
+
+    List<ItemRequest> findAll();
+
+    List<ItemRequest> findAllByRequestorId(Long requestorId);
+
+    /**
+     * Чужие запросы от новых к старым. Курсор page.afterId — id последнего запроса предыдущей страницы;
+     * если такого запроса уже нет, выбрасывается ValidationException.
+     */
+    List<ItemRequest> findAllByRequestorIdNot(Long requestorId, PageQuery page);
+
+    /**
+     * Удаляет запросы пользователя при удалении его самого; новые запросы для него после этого не сохраняются.
+     */
+    void deleteAllByRequestorId(Long requestorId);
+}
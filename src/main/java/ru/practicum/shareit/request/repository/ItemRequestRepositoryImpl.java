@@ -0,0 +1,159 @@
+package ru.practicum.shareit.request.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.StorageRecords;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("!jpa")
+@Timed(value = "shareit.repository", histogram = true)
+public class ItemRequestRepositoryImpl implements ItemRequestRepository {
+    private static final Comparator<CreatedKey> NEWEST_FIRST = Comparator.comparing(CreatedKey::created)
+            .thenComparing(CreatedKey::id)
+            .reversed();
+
+    private final NavigableMap<CreatedKey, ItemRequest> requestsByCreated = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Map<Long, ItemRequest> requests = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<CreatedKey, ItemRequest>> requestsByRequestor = new ConcurrentHashMap<>();
+    private final Set<Long> deletedRequestors = ConcurrentHashMap.newKeySet();
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final Journal journal;
+
+    public ItemRequestRepositoryImpl(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Запрос сохраняется внутри атомарной операции над запросами его автора, как и их удаление
+     * в deleteAllByRequestorId: запрос удалённого пользователя не сохраняется.
+     */
+    @Override
+    public ItemRequest save(ItemRequest request) {
+        return journal.write(() -> {
+            request.setId(idCounter.getAndIncrement());
+            requestsByRequestor.compute(request.getRequestor().getId(), (requestorId, own) -> {
+                if (deletedRequestors.contains(requestorId)) {
+                    throw new NoSuchElementException("Пользователь с id " + requestorId + " не найден");
+                }
+                NavigableMap<CreatedKey, ItemRequest> result = own == null
+                        ? new ConcurrentSkipListMap<>(NEWEST_FIRST)
+                        : own;
+                CreatedKey key = key(request);
+                requests.put(request.getId(), request);
+                result.put(key, request);
+                requestsByCreated.put(key, request);
+                journal.append(StorageRecords.requestPut(request));
+                return result;
+            });
+            return request;
+        });
+    }
+
+    /**
+     * Восстанавливает запрос из снимка или журнала, не записывая изменение в журнал.
+     */
+    public void restore(ItemRequest request) {
+        idCounter.accumulateAndGet(request.getId() + 1, Math::max);
+        if (requests.putIfAbsent(request.getId(), request) == null) {
+            index(request);
+        }
+    }
+
+    public void restoreDelete(Long id) {
+        ItemRequest removed = requests.remove(id);
+        if (removed != null) {
+            CreatedKey key = key(removed);
+            requestsByRequestor.computeIfPresent(removed.getRequestor().getId(), (requestorId, own) -> {
+                own.remove(key);
+                return own.isEmpty() ? null : own;
+            });
+            requestsByCreated.remove(key);
+        }
+    }
+
+    @Override
+    public Optional<ItemRequest> findById(Long id) {
+        return Optional.ofNullable(requests.get(id));
+    }
+
+    @Override
+    public List<ItemRequest> findAll() {
+        return new ArrayList<>(requests.values());
+    }
+
+    @Override
+    public List<ItemRequest> findAllByRequestorId(Long requestorId) {
+        NavigableMap<CreatedKey, ItemRequest> own = requestsByRequestor.get(requestorId);
+        return own == null ? Collections.emptyList() : new ArrayList<>(own.values());
+    }
+
+    /**
+     * Лента идёт по индексу (created, id) от новых запросов к старым и продолжается с ключа запроса-курсора,
+     * не проходя уже выданные страницы; собственные запросы пользователя пропускаются при обходе.
+     */
+    @Override
+    public List<ItemRequest> findAllByRequestorIdNot(Long requestorId, PageQuery page) {
+        NavigableMap<CreatedKey, ItemRequest> feed = page.afterId() == 0
+                ? requestsByCreated
+                : requestsByCreated.tailMap(key(cursor(page.afterId())), false);
+        return feed.values().stream()
+                .filter(request -> !request.getRequestor().getId().equals(requestorId))
+                .skip(page.offset())
+                .limit(page.size())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * В отличие от JPA, где запросы удаляются каскадом, вещи-ответы здесь сохраняют requestId удалённого запроса:
+     * ON DELETE SET NULL для них не воспроизводится.
+     */
+    @Override
+    public void deleteAllByRequestorId(Long requestorId) {
+        journal.execute(() -> requestsByRequestor.compute(requestorId, (key, own) -> {
+            deletedRequestors.add(key);
+            if (own != null) {
+                for (Map.Entry<CreatedKey, ItemRequest> entry : own.entrySet()) {
+                    requestsByCreated.remove(entry.getKey());
+                    requests.remove(entry.getValue().getId());
+                    journal.append(StorageRecords.requestDelete(entry.getValue().getId()));
+                }
+            }
+            return null;
+        }));
+    }
+
+    private ItemRequest cursor(long id) {
+        ItemRequest request = requests.get(id);
+        if (request == null) {
+            throw new ValidationException("Некорректный курсор: запрос с id %d не найден".formatted(id));
+        }
+        return request;
+    }
+
+    private void index(ItemRequest request) {
+        CreatedKey key = key(request);
+        requestsByRequestor.computeIfAbsent(request.getRequestor().getId(),
+                        id -> new ConcurrentSkipListMap<>(NEWEST_FIRST))
+                .put(key, request);
+        requestsByCreated.put(key, request);
+    }
+
+    private static CreatedKey key(ItemRequest request) {
+        return new CreatedKey(request.getCreated(), request.getId());
+    }
+
+    private record CreatedKey(LocalDateTime created, long id) {
+    }
+}
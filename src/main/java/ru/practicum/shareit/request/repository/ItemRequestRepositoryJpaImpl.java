@@ -0,0 +1,67 @@
+package ru.practicum.shareit.request.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("jpa")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "shareit.repository", histogram = true)
+public class ItemRequestRepositoryJpaImpl implements ItemRequestRepository {
+    private final ItemRequestJpaRepository jpaRepository;
+
+    @Override
+    @Transactional
+    public ItemRequest save(ItemRequest request) {
+        return jpaRepository.save(request);
+    }
+
+    @Override
+    public Optional<ItemRequest> findById(Long id) {
+        return jpaRepository.findById(id);
+    }
+
+    @Override
+    public List<ItemRequest> findAll() {
+        return jpaRepository.findAll();
+    }
+
+    @Override
+    public List<ItemRequest> findAllByRequestorId(Long requestorId) {
+        return jpaRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(requestorId);
+    }
+
+    @Override
+    public List<ItemRequest> findAllByRequestorIdNot(Long requestorId, PageQuery page) {
+        if (page.afterId() == 0) {
+            return jpaRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(requestorId,
+                    OffsetPageRequest.of(page));
+        }
+        ItemRequest cursor = jpaRepository.findById(page.afterId())
+                .orElseThrow(() -> new ValidationException(
+                        "Некорректный курсор: запрос с id %d не найден".formatted(page.afterId())));
+        return jpaRepository.findAllByRequestorIdNotBefore(requestorId, cursor.getCreated(), cursor.getId(),
+                OffsetPageRequest.of(page));
+    }
+
+    /**
+     * Вместе с пользователем запросы удалились бы и каскадом; явное удаление повторяет порядок хранилища в памяти.
+     * request_id вещей-ответов обнуляется по ON DELETE SET NULL.
+     */
+    @Override
+    @Transactional
+    public void deleteAllByRequestorId(Long requestorId) {
+        jpaRepository.deleteAllByRequestorId(requestorId);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(ItemRequestCreateDto requestDto, Long requestorId);
+
+    List<ItemRequestDto> getAllByRequestorId(Long requestorId);
+
+    List<ItemRequestDto> getAllOfOthers(Long userId, PageQuery page);
+
+    ItemRequestDto getById(Long id, Long userId);
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public ItemRequestDto create(ItemRequestCreateDto requestDto, Long requestorId) {
+        User requestor = findUser(requestorId);
+        ItemRequest request = ItemRequestMapper.toItemRequest(requestDto, requestor, LocalDateTime.now());
+        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(request), List.of());
+    }
+
+    @Override
+    public List<ItemRequestDto> getAllByRequestorId(Long requestorId) {
+        findUser(requestorId);
+        return withAnswers(itemRequestRepository.findAllByRequestorId(requestorId));
+    }
+
+    @Override
+    public List<ItemRequestDto> getAllOfOthers(Long userId, PageQuery page) {
+        findUser(userId);
+        return withAnswers(itemRequestRepository.findAllByRequestorIdNot(userId, page));
+    }
+
+    @Override
+    public ItemRequestDto getById(Long id, Long userId) {
+        findUser(userId);
+        ItemRequest request = itemRequestRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Запрос с id " + id + " не найден"));
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> answers = itemRepository.findAllByRequestIds(ids);
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь с id " + userId + " не найден"));
+    }
+}
@@ -0,0 +1,356 @@
+package ru.practicum.shareit.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepositoryImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.InMemoryItemRepository;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepositoryImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Восстанавливает хранилище в памяти при старте (последний снимок, затем хвост журнала) и периодически
+ * пишет новые снимки, после которых старые сегменты журнала удаляются.
+ * Снимок нечёткий: он пишется без остановки записи, начиная с отметки checkpoint, поэтому может содержать
+ * изменения новее отметки — они повторно применяются из журнала, а PUT-записи идемпотентны.
+ * По той же причине вещь может оказаться в снимке раньше своего владельца или запроса, а бронирование —
+ * раньше вещи: ссылки восстанавливаются заглушками с одним id и после чтения журнала заменяются настоящими
+ * сущностями. Вместе с бронированиями восстанавливаются интервальные индексы вещей.
+ * Вещи владельцев, удаление которых оборвалось остановкой, удаляются после восстановления.
+ */
+@Slf4j
+@Component
+@Profile("!jpa")
+@ConditionalOnProperty(name = "shareit.storage.durable.enabled", havingValue = "true")
+public class DurableStorage implements StorageRecords.Target {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x53484954;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int END_OF_RECORDS = -1;
+
+    private final FileJournal journal;
+    private final UserRepositoryImpl userRepository;
+    private final InMemoryItemRepository itemRepository;
+    private final ItemRequestRepositoryImpl itemRequestRepository;
+    private final BookingRepositoryImpl bookingRepository;
+    private final Path directory;
+    private final Duration snapshotInterval;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean restored;
+
+    public DurableStorage(FileJournal journal,
+                          UserRepositoryImpl userRepository,
+                          InMemoryItemRepository itemRepository,
+                          ItemRequestRepositoryImpl itemRequestRepository,
+                          BookingRepositoryImpl bookingRepository,
+                          @Value("${shareit.storage.durable.directory}") Path directory,
+                          @Value("${shareit.storage.durable.snapshot-interval}") Duration snapshotInterval) {
+        this.journal = journal;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.bookingRepository = bookingRepository;
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @PostConstruct
+    public void restore() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        long snapshotLsn = loadSnapshot();
+        long lastLsn = journal.recover(snapshotLsn, record -> StorageRecords.apply(record, this));
+        relink();
+        finishOwnerDeletions();
+        restored = true;
+        log.info("Хранилище восстановлено до LSN {} (снимок {}) за {} мс",
+                lastLsn, snapshotLsn, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        if (!snapshotInterval.isZero()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shareit-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = snapshotInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (restored) {
+            snapshotQuietly();
+        }
+    }
+
+    /**
+     * Пишет снимок всего хранилища и удаляет журнал, который в него вошёл. Возвращает LSN снимка.
+     */
+    public long snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long lsn = journal.checkpoint();
+            Path target = directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(lsn) + SNAPSHOT_SUFFIX);
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream header = new DataOutputStream(Channels.newOutputStream(channel));
+                header.writeInt(SNAPSHOT_MAGIC);
+                header.writeInt(SNAPSHOT_VERSION);
+                header.writeLong(lsn);
+
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+                for (User user : userRepository.findAll(PageQuery.unpaged())) {
+                    writeRecord(out, StorageRecords.userPut(user));
+                }
+                for (ItemRequest request : itemRequestRepository.findAll()) {
+                    writeRecord(out, StorageRecords.requestPut(request));
+                }
+                for (Item item : itemRepository.findAll()) {
+                    writeRecord(out, StorageRecords.itemPut(item));
+                }
+                for (Long ownerId : itemRepository.findDeletedOwnerIds()) {
+                    writeRecord(out, StorageRecords.ownerDeleted(ownerId));
+                }
+                for (Booking booking : bookingRepository.findAll()) {
+                    writeRecord(out, StorageRecords.bookingPut(booking));
+                }
+                out.writeInt(END_OF_RECORDS);
+                out.flush();
+                header.writeInt((int) crc.getValue());
+                header.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            for (Path snapshot : snapshots()) {
+                if (!snapshot.equals(target)) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+            journal.deleteSegmentsUpTo(lsn);
+            return lsn;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void putUser(long id, String name, String email, long version) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setVersion(version);
+        userRepository.restore(user);
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        userRepository.restoreDelete(id);
+    }
+
+    @Override
+    public void putRequest(long id, String description, long requestorId, LocalDateTime created) {
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setDescription(description);
+        request.setRequestor(userReference(requestorId));
+        request.setCreated(created);
+        itemRequestRepository.restore(request);
+    }
+
+    @Override
+    public void deleteRequest(long id) {
+        itemRequestRepository.restoreDelete(id);
+    }
+
+    @Override
+    public void putItem(long id, String name, String description, boolean available, long ownerId, Long requestId,
+                        long version, long revision) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setVersion(version);
+        item.setRevision(revision);
+        item.setOwner(userReference(ownerId));
+        if (requestId != null) {
+            item.setRequest(itemRequestRepository.findById(requestId).orElseGet(() -> {
+                ItemRequest reference = new ItemRequest();
+                reference.setId(requestId);
+                return reference;
+            }));
+        }
+        itemRepository.restore(item);
+    }
+
+    @Override
+    public void deleteItem(long id) {
+        itemRepository.restoreDelete(id);
+    }
+
+    @Override
+    public void markOwnerDeleted(long ownerId) {
+        itemRepository.restoreOwnerDeleted(ownerId);
+    }
+
+    @Override
+    public void putBooking(long id, LocalDateTime start, LocalDateTime end, long itemId, long ownerId, long bookerId,
+                           Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(itemRepository.findById(itemId).orElseGet(() -> {
+            Item reference = new Item();
+            reference.setId(itemId);
+            reference.setOwner(userReference(ownerId));
+            return reference;
+        }));
+        booking.setBooker(userReference(bookerId));
+        booking.setStatus(status);
+        bookingRepository.restore(booking);
+    }
+
+    @Override
+    public void deleteBooking(long id) {
+        bookingRepository.restoreDelete(id);
+    }
+
+    private long loadSnapshot() throws IOException {
+        Optional<Path> latest = snapshots().stream().reduce((first, second) -> second);
+        if (latest.isEmpty()) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(latest.get(), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < SNAPSHOT_HEADER_SIZE + Integer.BYTES
+                    || mapped.getInt() != SNAPSHOT_MAGIC || mapped.getInt() != SNAPSHOT_VERSION) {
+                throw new IllegalStateException("Файл " + latest.get() + " не является снимком хранилища");
+            }
+            long lsn = mapped.getLong();
+            ByteBuffer records = mapped.slice(SNAPSHOT_HEADER_SIZE, mapped.limit() - SNAPSHOT_HEADER_SIZE - Integer.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(records.duplicate());
+            if ((int) crc.getValue() != mapped.getInt(mapped.limit() - Integer.BYTES)) {
+                throw new IllegalStateException("Снимок " + latest.get() + " повреждён: не совпадает контрольная сумма");
+            }
+            int length;
+            while ((length = records.getInt()) != END_OF_RECORDS) {
+                ByteBuffer record = records.slice(records.position(), length);
+                StorageRecords.apply(record, this);
+                records.position(records.position() + length);
+            }
+            return lsn;
+        }
+    }
+
+    /**
+     * Заменяет заглушки владельцев, авторов, запросов, вещей и арендаторов восстановленными сущностями.
+     */
+    private void relink() {
+        for (ItemRequest request : itemRequestRepository.findAll()) {
+            userRepository.findById(request.getRequestor().getId()).ifPresent(request::setRequestor);
+        }
+        for (Item item : itemRepository.findAll()) {
+            userRepository.findById(item.getOwner().getId()).ifPresent(item::setOwner);
+            if (item.getRequest() != null) {
+                itemRequestRepository.findById(item.getRequest().getId()).ifPresent(item::setRequest);
+            }
+        }
+        for (Booking booking : bookingRepository.findAll()) {
+            itemRepository.findById(booking.getItem().getId()).ifPresent(booking::setItem);
+            userRepository.findById(booking.getBooker().getId()).ifPresent(booking::setBooker);
+        }
+    }
+
+    /**
+     * Удаление записывается в журнал: журнал уже открыт после recover.
+     */
+    private void finishOwnerDeletions() {
+        for (Long ownerId : itemRepository.findDeletedOwnerIds()) {
+            List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+            if (!itemIds.isEmpty()) {
+                itemRepository.deleteAllById(itemIds);
+                log.info("Удалено {} вещей удалённого пользователя {}", itemIds.size(), ownerId);
+            }
+        }
+    }
+
+    private User userReference(long id) {
+        return userRepository.findById(id).orElseGet(() -> {
+            User reference = new User();
+            reference.setId(id);
+            return reference;
+        });
+    }
+
+    private void snapshotQuietly() {
+        try {
+            long lsn = snapshot();
+            log.info("Записан снимок хранилища на LSN {}", lsn);
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось записать снимок хранилища: {}", e.getMessage());
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] record) throws IOException {
+        out.writeInt(record.length);
+        out.write(record);
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
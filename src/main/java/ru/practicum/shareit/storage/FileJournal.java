@@ -0,0 +1,386 @@
+package ru.practicum.shareit.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал предзаписи в сегментах wal-&lt;первый LSN&gt;.log. Записи ставятся в очередь, а единственный поток
+ * записи забирает всё накопившееся, пишет одним gather-вызовом FileChannel.write и выполняет один force
+ * на весь пакет (group commit): чем больше одновременных писателей, тем больше записей приходится на fsync.
+ * Формат записи: длина, LSN, CRC32 содержимого, содержимое. Недописанный хвост при восстановлении обрезается.
+ * <p>
+ * После первой ошибки записи журнал останавливается (fail-stop): в сегменте мог остаться недописанный
+ * хвост, и новые записи за ним были бы отброшены при восстановлении вместе с ним. Все ожидающие и последующие
+ * изменения получают ошибку и в память не применяются, состояние журнала видно через {@link #failure()}.
+ * Изменение, на котором произошла ошибка, уже применено в памяти и до перезапуска остаётся видимым при чтении,
+ * но клиент получает ошибку, а после перезапуска состояние восстанавливается по журналу.
+ */
+@Slf4j
+public class FileJournal implements Journal, AutoCloseable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MAX_BATCH = 4096;
+
+    private final Path directory;
+    private final SegmentOpener segmentOpener;
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private final AtomicLong lastLsn = new AtomicLong();
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final ThreadLocal<List<CompletableFuture<Void>>> pending = new ThreadLocal<>();
+    private final LongAdder syncs = new LongAdder();
+    private volatile boolean open;
+    private volatile Exception failure;
+    private FileChannel channel;
+    private Thread writer;
+
+    public FileJournal(Path directory) {
+        this(directory, FileJournal::openAppend);
+    }
+
+    FileJournal(Path directory, SegmentOpener segmentOpener) {
+        this.directory = directory;
+        this.segmentOpener = segmentOpener;
+    }
+
+    /**
+     * Передаёт в replay содержимое всех записей с LSN больше afterLsn в порядке файлов, затем открывает
+     * новый сегмент и запускает поток записи. Возвращает последний LSN.
+     */
+    public long recover(long afterLsn, Consumer<ByteBuffer> replay) throws IOException {
+        Files.createDirectories(directory);
+        long maxLsn = afterLsn;
+        for (Path segment : segments()) {
+            maxLsn = Math.max(maxLsn, replaySegment(segment, afterLsn, replay));
+        }
+        lastLsn.set(maxLsn);
+        channel = openSegment(maxLsn + 1);
+        open = true;
+        writer = new Thread(this::writeLoop, "shareit-journal");
+        writer.setDaemon(true);
+        writer.start();
+        return maxLsn;
+    }
+
+    @Override
+    public <T> T write(Supplier<T> mutation) {
+        if (pending.get() != null) {
+            return mutation.get();
+        }
+        checkNotFailed();
+        List<CompletableFuture<Void>> appended = new ArrayList<>();
+        pending.set(appended);
+        T result;
+        gate.readLock().lock();
+        try {
+            result = mutation.get();
+        } finally {
+            gate.readLock().unlock();
+            pending.remove();
+        }
+        awaitDurable(appended);
+        return result;
+    }
+
+    @Override
+    public void append(byte[] record) {
+        List<CompletableFuture<Void>> appended = pending.get();
+        if (!open || appended == null) {
+            throw new IllegalStateException("Запись в журнал возможна только внутри write после восстановления");
+        }
+        checkNotFailed();
+        Entry entry = new Entry(Entry.RECORD, lastLsn.incrementAndGet(), record);
+        queue.add(entry);
+        appended.add(entry.done);
+    }
+
+    /**
+     * Дожидается завершения всех начатых изменений, закрывает текущий сегмент и начинает новый.
+     * Все записи с LSN не больше возвращённого уже применены в памяти и лежат в закрытых сегментах.
+     */
+    public long checkpoint() {
+        if (!open) {
+            throw new IllegalStateException("Журнал не открыт");
+        }
+        checkNotFailed();
+        Entry rotation;
+        gate.writeLock().lock();
+        try {
+            rotation = new Entry(Entry.ROTATE, lastLsn.get(), null);
+            queue.add(rotation);
+        } finally {
+            gate.writeLock().unlock();
+        }
+        awaitDurable(List.of(rotation.done));
+        return rotation.lsn;
+    }
+
+    /**
+     * Удаляет сегменты, все записи которых не новее lsn (то есть уже вошли в снимок).
+     */
+    public void deleteSegmentsUpTo(long lsn) throws IOException {
+        for (Path segment : segments()) {
+            if (firstLsn(segment) <= lsn) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * Ошибка, после которой журнал перестал принимать изменения.
+     */
+    public Optional<Exception> failure() {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * Число выполненных force: при group commit оно меньше числа записей.
+     */
+    long syncCount() {
+        return syncs.sum();
+    }
+
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        Entry stop = new Entry(Entry.STOP, lastLsn.get(), null);
+        queue.add(stop);
+        stop.done.join();
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        List<Entry> written = new ArrayList<>(MAX_BATCH);
+        List<ByteBuffer> buffers = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (failure != null) {
+                if (reject(batch)) {
+                    return;
+                }
+                batch.clear();
+                continue;
+            }
+            try {
+                for (Entry entry : batch) {
+                    if (entry.type == Entry.RECORD) {
+                        buffers.add(entry.encode());
+                        written.add(entry);
+                        continue;
+                    }
+                    flush(buffers, written);
+                    channel.close();
+                    if (entry.type == Entry.STOP) {
+                        entry.done.complete(null);
+                        return;
+                    }
+                    channel = openSegment(entry.lsn + 1);
+                    entry.done.complete(null);
+                }
+                flush(buffers, written);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                log.error("Журнал остановлен после ошибки записи, изменения больше не принимаются", e);
+                buffers.clear();
+                written.clear();
+                if (reject(batch)) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Завершает ошибкой записи и ротации остановленного журнала. Возвращает true, если в пакете была остановка.
+     */
+    private boolean reject(List<Entry> batch) {
+        boolean stopped = false;
+        for (Entry entry : batch) {
+            if (entry.type == Entry.STOP) {
+                closeQuietly();
+                entry.done.complete(null);
+                stopped = true;
+            } else {
+                entry.done.completeExceptionally(failure);
+            }
+        }
+        return stopped;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть сегмент журнала: {}", e.getMessage());
+        }
+    }
+
+    private void checkNotFailed() {
+        Exception cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("Журнал остановлен после ошибки записи, изменения не принимаются", cause);
+        }
+    }
+
+    private void flush(List<ByteBuffer> buffers, List<Entry> written) throws IOException {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : array) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(array);
+        }
+        channel.force(false);
+        syncs.increment();
+        written.forEach(entry -> entry.done.complete(null));
+        buffers.clear();
+        written.clear();
+    }
+
+    private long replaySegment(Path segment, long afterLsn, Consumer<ByteBuffer> replay) throws IOException {
+        long maxLsn = afterLsn;
+        long validLength;
+        long fileLength;
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            fileLength = file.size();
+            MappedByteBuffer mapped = file.map(FileChannel.MapMode.READ_ONLY, 0, fileLength);
+            CRC32 crc = new CRC32();
+            while (true) {
+                int start = mapped.position();
+                if (mapped.remaining() < HEADER_SIZE) {
+                    validLength = start;
+                    break;
+                }
+                int length = mapped.getInt();
+                long lsn = mapped.getLong();
+                int checksum = mapped.getInt();
+                if (length < 0 || mapped.remaining() < length) {
+                    validLength = start;
+                    break;
+                }
+                ByteBuffer record = mapped.slice(mapped.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    validLength = start;
+                    break;
+                }
+                mapped.position(mapped.position() + length);
+                if (lsn > afterLsn) {
+                    replay.accept(record);
+                    maxLsn = Math.max(maxLsn, lsn);
+                }
+            }
+        }
+        if (validLength < fileLength) {
+            log.warn("Сегмент {} обрезан с {} до {} байт: недописанная запись", segment, fileLength, validLength);
+            try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                file.truncate(validLength);
+            }
+        }
+        return maxLsn;
+    }
+
+    private FileChannel openSegment(long firstLsn) throws IOException {
+        return segmentOpener.open(directory.resolve(SEGMENT_PREFIX + "%020d".formatted(firstLsn) + SEGMENT_SUFFIX));
+    }
+
+    private static FileChannel openAppend(Path segment) throws IOException {
+        return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void awaitDurable(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    interface SegmentOpener {
+        FileChannel open(Path segment) throws IOException;
+    }
+
+    private static final class Entry {
+        static final int RECORD = 0;
+        static final int ROTATE = 1;
+        static final int STOP = 2;
+
+        final int type;
+        final long lsn;
+        final byte[] record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Entry(int type, long lsn, byte[] record) {
+            this.type = type;
+            this.lsn = lsn;
+            this.record = record;
+        }
+
+        ByteBuffer encode() {
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + record.length);
+            buffer.putInt(record.length).putLong(lsn).putInt((int) crc.getValue()).put(record);
+            return buffer.flip();
+        }
+    }
+}
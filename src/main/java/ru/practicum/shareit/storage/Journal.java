@@ -0,0 +1,33 @@
+package ru.practicum.shareit.storage;
+
+import java.util.function.Supplier;
+
+/**
+ * Журнал изменений хранилища в памяти. Изменение выполняется внутри write, а каждая его запись
+ * добавляется через append в той же атомарной операции над ключом, что и само изменение, — так порядок
+ * записей для одного id совпадает с порядком изменений. write возвращает управление, когда все записи
+ * изменения надёжно сохранены.
+ */
+public interface Journal {
+    Journal NONE = new Journal() {
+        @Override
+        public <T> T write(Supplier<T> mutation) {
+            return mutation.get();
+        }
+
+        @Override
+        public void append(byte[] record) {
+        }
+    };
+
+    <T> T write(Supplier<T> mutation);
+
+    default void execute(Runnable mutation) {
+        write(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    void append(byte[] record);
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+/**
+ * Журнал для хранилища в памяти: файловый при shareit.storage.durable.enabled=true, иначе пустой.
+ */
+@Configuration
+@Profile("!jpa")
+public class StorageConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit.storage.durable.enabled", havingValue = "true")
+    public FileJournal fileJournal(@Value("${shareit.storage.durable.directory}") Path directory) {
+        return new FileJournal(directory);
+    }
+
+    /**
+     * Остановленный после ошибки записи журнал переводит приложение в DOWN: изменения уже не принимаются.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "shareit.storage.durable.enabled", havingValue = "true")
+    public HealthIndicator journalHealthIndicator(FileJournal fileJournal) {
+        return () -> fileJournal.failure()
+                .map(failure -> Health.down(failure).build())
+                .orElseGet(() -> Health.up().build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.storage.durable.enabled", havingValue = "false", matchIfMissing = true)
+    public Journal journal() {
+        return Journal.NONE;
+    }
+}
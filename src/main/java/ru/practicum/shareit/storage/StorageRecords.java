@@ -0,0 +1,213 @@
+package ru.practicum.shareit.storage;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Двоичный формат записей журнала и снимка: байт типа и поля сущности. PUT-записи содержат полное
+ * состояние сущности, поэтому повторное применение идемпотентно и порядок имеет значение только для одного id.
+ */
+@UtilityClass
+public class StorageRecords {
+    static final byte USER_PUT = 1;
+    static final byte USER_DELETE = 2;
+    static final byte ITEM_PUT = 3;
+    static final byte ITEM_DELETE = 4;
+    static final byte REQUEST_PUT = 5;
+    static final byte OWNER_DELETED = 6;
+    static final byte BOOKING_PUT = 7;
+    static final byte BOOKING_DELETE = 8;
+    static final byte REQUEST_DELETE = 9;
+
+    private static final long NONE = -1;
+
+    /**
+     * Получатель восстановленных записей.
+     */
+    public interface Target {
+        void putUser(long id, String name, String email, long version);
+
+        void deleteUser(long id);
+
+        void putRequest(long id, String description, long requestorId, LocalDateTime created);
+
+        void deleteRequest(long id);
+
+        void putItem(long id, String name, String description, boolean available, long ownerId, Long requestId,
+                     long version, long revision);
+
+        void deleteItem(long id);
+
+        void markOwnerDeleted(long ownerId);
+
+        void putBooking(long id, LocalDateTime start, LocalDateTime end, long itemId, long ownerId, long bookerId,
+                        Booking.Status status);
+
+        void deleteBooking(long id);
+    }
+
+    public static byte[] userPut(User user) {
+        return write(USER_PUT, out -> {
+            out.writeLong(user.getId());
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+            out.writeLong(version(user.getVersion()));
+        });
+    }
+
+    public static byte[] userDelete(Long id) {
+        return write(USER_DELETE, out -> out.writeLong(id));
+    }
+
+    public static byte[] requestPut(ItemRequest request) {
+        return write(REQUEST_PUT, out -> {
+            out.writeLong(request.getId());
+            writeString(out, request.getDescription());
+            out.writeLong(request.getRequestor().getId());
+            writeDateTime(out, request.getCreated());
+        });
+    }
+
+    public static byte[] requestDelete(Long id) {
+        return write(REQUEST_DELETE, out -> out.writeLong(id));
+    }
+
+    public static byte[] itemPut(Item item) {
+        return write(ITEM_PUT, out -> {
+            out.writeLong(item.getId());
+            writeString(out, item.getName());
+            writeString(out, item.getDescription());
+            out.writeBoolean(Boolean.TRUE.equals(item.getAvailable()));
+            out.writeLong(item.getOwner().getId());
+            out.writeLong(item.getRequest() == null ? NONE : item.getRequest().getId());
+            out.writeLong(version(item.getVersion()));
+            out.writeLong(version(item.getRevision()));
+        });
+    }
+
+    public static byte[] itemDelete(Long id) {
+        return write(ITEM_DELETE, out -> out.writeLong(id));
+    }
+
+    public static byte[] ownerDeleted(Long ownerId) {
+        return write(OWNER_DELETED, out -> out.writeLong(ownerId));
+    }
+
+    /**
+     * Владелец вещи записывается вместе с ней: бронирование может пережить вещь, а индекс бронирований
+     * владельца при восстановлении строится по этому id.
+     */
+    public static byte[] bookingPut(Booking booking) {
+        return write(BOOKING_PUT, out -> {
+            out.writeLong(booking.getId());
+            writeDateTime(out, booking.getStart());
+            writeDateTime(out, booking.getEnd());
+            out.writeLong(booking.getItem().getId());
+            out.writeLong(booking.getItem().getOwner().getId());
+            out.writeLong(booking.getBooker().getId());
+            writeString(out, booking.getStatus().name());
+        });
+    }
+
+    public static byte[] bookingDelete(Long id) {
+        return write(BOOKING_DELETE, out -> out.writeLong(id));
+    }
+
+    /**
+     * Читает одну запись с текущей позиции буфера и передаёт её получателю.
+     */
+    static void apply(ByteBuffer buffer, Target target) {
+        byte type = buffer.get();
+        switch (type) {
+            case USER_PUT -> target.putUser(buffer.getLong(), readString(buffer), readString(buffer), readVersion(buffer));
+            case USER_DELETE -> target.deleteUser(buffer.getLong());
+            case REQUEST_PUT -> target.putRequest(buffer.getLong(), readString(buffer), buffer.getLong(),
+                    readDateTime(buffer));
+            case REQUEST_DELETE -> target.deleteRequest(buffer.getLong());
+            case ITEM_PUT -> {
+                long id = buffer.getLong();
+                String name = readString(buffer);
+                String description = readString(buffer);
+                boolean available = buffer.get() != 0;
+                long ownerId = buffer.getLong();
+                long requestId = buffer.getLong();
+                target.putItem(id, name, description, available, ownerId, requestId == NONE ? null : requestId,
+                        readVersion(buffer), readVersion(buffer));
+            }
+            case ITEM_DELETE -> target.deleteItem(buffer.getLong());
+            case OWNER_DELETED -> target.markOwnerDeleted(buffer.getLong());
+            case BOOKING_PUT -> target.putBooking(buffer.getLong(), readDateTime(buffer), readDateTime(buffer),
+                    buffer.getLong(), buffer.getLong(), buffer.getLong(), Booking.Status.valueOf(readString(buffer)));
+            case BOOKING_DELETE -> target.deleteBooking(buffer.getLong());
+            default -> throw new IllegalStateException("Неизвестный тип записи хранилища: " + type);
+        }
+    }
+
+    private static byte[] write(byte type, RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long version(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Версия (и ревизия вещи за ней) дописана в конец PUT-записей позже остальных полей: в записях без них
+     * значение считается нулевым.
+     */
+    private static long readVersion(ByteBuffer buffer) {
+        return buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
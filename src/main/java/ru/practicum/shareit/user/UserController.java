@@ -2,12 +2,23 @@ package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.cache.ETags;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.pagination.PageResponses;
+import ru.practicum.shareit.streaming.NdjsonResponseWriter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
@@ -17,7 +28,10 @@ import java.util.List;
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int BATCH_MAX_SIZE = 1000;
+
     private final UserService userService;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -25,14 +39,33 @@ public class UserController {
         return userService.create(userDto);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<UserDto>> createAll(
+            @RequestBody @Size(min = 1, max = BATCH_MAX_SIZE) List<UserDto> userDtos) {
+        return userService.createAll(userDtos);
+    }
+
+    /**
+     * Ответ несёт сильный ETag по версии пользователя; на совпавший If-None-Match отдаётся 304 без тела.
+     */
     @GetMapping("/{id}")
-    public UserDto getById(@PathVariable @Positive Long id) {
-        return userService.getById(id);
+    public ResponseEntity<UserDto> getById(@PathVariable @Positive Long id) {
+        UserDto user = userService.getById(id);
+        return ResponseEntity.ok().eTag(ETags.of(user)).body(user);
     }
 
     @GetMapping
-    public List<UserDto> getAll() {
-        return userService.getAll();
+    public ResponseEntity<List<User>> getAll(
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        PageQuery page = PageQuery.of(from, size, cursor);
+        return PageResponses.of(userService.getAll(page), page, User::getId);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonResponseWriter.write(userService.streamAll());
     }
 
     @PatchMapping("/{id}")
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
@@ -14,4 +15,7 @@ public class UserDto {
     @Email(message = "Некорректный формат email")
     @NotBlank(message = "Email не может быть пустым")
     private String email;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.user.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+
+/**
+ * Сериализация пользователей прямо из сущностей в том же виде, что и UserDto.
+ */
+@JsonComponent
+public class UserJson {
+
+    public static class Serializer extends JsonSerializer<User> {
+        @Override
+        public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(user);
+            generator.writeNumberField("id", user.getId());
+            generator.writeStringField("name", user.getName());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserJpaRepository extends JpaRepository<User, Long> {
+    Optional<User> findByEmail(String email);
+
+    Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+    List<String> findExistingLowerCaseEmails(@Param("emails") Collection<String> lowerCaseEmails);
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
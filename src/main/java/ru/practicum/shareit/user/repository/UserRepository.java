@@ -1,17 +1,45 @@
 package ru.practicum.shareit.user.repository;
 
+import ru.practicum.shareit.pagination.PageQuery;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository {
     User save(User user);
 
+    /**
+     * Сохраняет всех пользователей или ни одного: при занятом email выбрасывает AlreadyExistException.
+     */
+    List<User> saveAll(List<User> users);
+
     Optional<User> findById(Long id);
 
-    List<User> findAll();
+    Optional<User> findByEmail(String email);
+
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Ключ, по которому email считаются одинаковыми: сам email или, при shareit.users.email-ignore-case,
+     * его нижний регистр.
+     */
+    String emailKey(String email);
+
+    List<User> findAll(PageQuery page);
+
+    default List<User> findAll() {
+        return findAll(PageQuery.unpaged());
+    }
+
+    long count();
 
+    /**
+     * Публикует новую версию пользователя. Передаётся новый экземпляр с версией, от которой он получен;
+     * если хранимая версия уже другая, выбрасывается ConflictException, иначе версия увеличивается.
+     */
     User update(User user);
 
     void deleteById(Long id);
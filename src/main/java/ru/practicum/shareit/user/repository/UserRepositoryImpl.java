@@ -1,21 +1,86 @@
 package ru.practicum.shareit.user.repository;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.storage.StorageRecords;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Repository
+@Profile("!jpa")
+@Timed(value = "shareit.repository", histogram = true)
 public class UserRepositoryImpl implements UserRepository {
 
-    private final Map<Long, User> users = new HashMap<>();
-    private long idCounter = 1;
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> userIds = new ConcurrentSkipListSet<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong idCounter = new AtomicLong(1);
+    private final boolean emailIgnoreCase;
+    private final Journal journal;
+
+    public UserRepositoryImpl(@Value("${shareit.users.email-ignore-case:false}") boolean emailIgnoreCase,
+                              Journal journal) {
+        this.emailIgnoreCase = emailIgnoreCase;
+        this.journal = journal;
+    }
 
     @Override
     public User save(User user) {
-        user.setId(idCounter++);
-        users.put(user.getId(), user);
-        return user;
+        return journal.write(() -> {
+            user.setId(idCounter.getAndIncrement());
+            reserveEmail(user.getEmail(), user.getId());
+            publish(user);
+            return user;
+        });
+    }
+
+    @Override
+    public List<User> saveAll(List<User> newUsers) {
+        return journal.write(() -> {
+            List<User> reserved = new ArrayList<>(newUsers.size());
+            try {
+                for (User user : newUsers) {
+                    user.setId(idCounter.getAndIncrement());
+                    reserveEmail(user.getEmail(), user.getId());
+                    reserved.add(user);
+                }
+            } catch (AlreadyExistException e) {
+                reserved.forEach(user -> userIdsByEmail.remove(emailKey(user.getEmail()), user.getId()));
+                throw e;
+            }
+            newUsers.forEach(this::publish);
+            return newUsers;
+        });
+    }
+
+    /**
+     * Восстанавливает пользователя из снимка или журнала, не записывая изменение в журнал.
+     */
+    public void restore(User user) {
+        idCounter.accumulateAndGet(user.getId() + 1, Math::max);
+        users.compute(user.getId(), (id, existing) -> {
+            if (existing != null) {
+                userIdsByEmail.remove(emailKey(existing.getEmail()), id);
+            }
+            userIdsByEmail.put(emailKey(user.getEmail()), id);
+            return user;
+        });
+        userIds.add(user.getId());
+    }
+
+    public void restoreDelete(Long id) {
+        remove(id, false);
     }
 
     @Override
@@ -24,22 +89,89 @@ public class UserRepositoryImpl implements UserRepository {
     }
 
     @Override
-    public List<User> findAll() {
-        return new ArrayList<>(users.values());
+    public Optional<User> findByEmail(String email) {
+        Long id = userIdsByEmail.get(emailKey(email));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return emails.stream()
+                .filter(email -> userIdsByEmail.containsKey(emailKey(email)))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public String emailKey(String email) {
+        return emailIgnoreCase ? email.toLowerCase(Locale.ROOT) : email;
+    }
+
+    @Override
+    public long count() {
+        return users.size();
+    }
+
+    @Override
+    public List<User> findAll(PageQuery page) {
+        return userIds.tailSet(page.afterId(), false).stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .skip(page.offset())
+                .limit(page.size())
+                .collect(Collectors.toList());
     }
 
     @Override
     public User update(User user) {
-        if (users.containsKey(user.getId())) {
-            users.put(user.getId(), user);
+        User updated = journal.write(() -> users.computeIfPresent(user.getId(), (id, existing) -> {
+            if (!Objects.equals(existing.getVersion(), user.getVersion())) {
+                throw new ConflictException("Пользователь с id %d изменён параллельным запросом".formatted(id));
+            }
+            String oldKey = emailKey(existing.getEmail());
+            if (!oldKey.equals(emailKey(user.getEmail()))) {
+                reserveEmail(user.getEmail(), id);
+                userIdsByEmail.remove(oldKey, id);
+            }
+            user.setVersion(existing.getVersion() + 1);
+            journal.append(StorageRecords.userPut(user));
             return user;
+        }));
+        if (updated == null) {
+            throw new NoSuchElementException("Пользователь с id " + user.getId() + " не найден");
         }
-        throw new NoSuchElementException("Пользователь с id " + user.getId() + " не найден");
+        return updated;
     }
 
     @Override
     public void deleteById(Long id) {
-        users.remove(id);
+        journal.execute(() -> remove(id, true));
+    }
+
+    private void publish(User user) {
+        user.setVersion(0L);
+        users.compute(user.getId(), (id, existing) -> {
+            journal.append(StorageRecords.userPut(user));
+            return user;
+        });
+        userIds.add(user.getId());
+    }
+
+    private void remove(Long id, boolean journaled) {
+        users.computeIfPresent(id, (key, removed) -> {
+            userIds.remove(key);
+            userIdsByEmail.remove(emailKey(removed.getEmail()), key);
+            if (journaled) {
+                journal.append(StorageRecords.userDelete(key));
+            }
+            return null;
+        });
+    }
+
+    private void reserveEmail(String email, Long id) {
+        Long ownerId = userIdsByEmail.putIfAbsent(emailKey(email), id);
+        if (ownerId != null && !ownerId.equals(id)) {
+            throw new AlreadyExistException("Пользователь с email %s уже зарегистрирован".formatted(email));
+        }
     }
 
 }
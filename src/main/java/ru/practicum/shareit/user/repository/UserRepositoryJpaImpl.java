@@ -0,0 +1,127 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("jpa")
+@Transactional(readOnly = true)
+@Timed(value = "shareit.repository", histogram = true)
+public class UserRepositoryJpaImpl implements UserRepository {
+
+    private final UserJpaRepository jpaRepository;
+    private final boolean emailIgnoreCase;
+
+    public UserRepositoryJpaImpl(UserJpaRepository jpaRepository,
+                                 @Value("${shareit.users.email-ignore-case:false}") boolean emailIgnoreCase) {
+        this.jpaRepository = jpaRepository;
+        this.emailIgnoreCase = emailIgnoreCase;
+    }
+
+    @Override
+    @Transactional
+    public User save(User user) {
+        checkEmailIsFree(user.getEmail(), null);
+        return saveAndFlush(user);
+    }
+
+    @Override
+    @Transactional
+    public List<User> saveAll(List<User> users) {
+        try {
+            List<User> saved = jpaRepository.saveAll(users);
+            jpaRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new AlreadyExistException("Один из email пакета уже зарегистрирован");
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return jpaRepository.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return emailIgnoreCase ? jpaRepository.findByEmailIgnoreCase(email) : jpaRepository.findByEmail(email);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Collections.emptySet();
+        }
+        if (!emailIgnoreCase) {
+            return new HashSet<>(jpaRepository.findExistingEmails(emails));
+        }
+        Set<String> taken = new HashSet<>(jpaRepository.findExistingLowerCaseEmails(emails.stream()
+                .map(this::emailKey)
+                .collect(Collectors.toSet())));
+        return emails.stream()
+                .filter(email -> taken.contains(emailKey(email)))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public String emailKey(String email) {
+        return emailIgnoreCase ? email.toLowerCase(Locale.ROOT) : email;
+    }
+
+    @Override
+    public long count() {
+        return jpaRepository.count();
+    }
+
+    @Override
+    public List<User> findAll(PageQuery page) {
+        return jpaRepository.findAllByIdGreaterThanOrderByIdAsc(page.afterId(), OffsetPageRequest.of(page));
+    }
+
+    @Override
+    @Transactional
+    public User update(User user) {
+        if (!jpaRepository.existsById(user.getId())) {
+            throw new NoSuchElementException("Пользователь с id " + user.getId() + " не найден");
+        }
+        checkEmailIsFree(user.getEmail(), user.getId());
+        return saveAndFlush(user);
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        jpaRepository.deleteById(id);
+    }
+
+    private void checkEmailIsFree(String email, Long userId) {
+        findByEmail(email)
+                .filter(owner -> !owner.getId().equals(userId))
+                .ifPresent(owner -> {
+                    throw emailTaken(email);
+                });
+    }
+
+    private User saveAndFlush(User user) {
+        try {
+            return jpaRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTaken(user.getEmail());
+        }
+    }
+
+    private AlreadyExistException emailTaken(String email) {
+        return new AlreadyExistException("Пользователь с email %s уже зарегистрирован".formatted(email));
+    }
+}
@@ -1,16 +1,24 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.pagination.PageQuery;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserService {
     UserDto create(UserDto userDto);
 
+    List<BatchResultDto<UserDto>> createAll(List<UserDto> userDtos);
+
     UserDto getById(Long id);
 
-    List<UserDto> getAll();
+    List<User> getAll(PageQuery page);
+
+    Stream<User> streamAll();
 
     UserDto update(Long id, UserUpdateDto userDto);
 
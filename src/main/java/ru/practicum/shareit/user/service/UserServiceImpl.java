@@ -1,74 +1,153 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.item.service.OwnedItemsCleanup;
+import ru.practicum.shareit.pagination.KeysetStreams;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final OwnedItemsCleanup ownedItemsCleanup;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BatchValidator batchValidator;
+    private final DomainEventPublisher eventPublisher;
 
     @Override
     public UserDto create(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
-        validateEmail(user.getEmail());
         User savedUser = userRepository.save(user);
+        eventPublisher.publish(DomainEvent.userCreated(savedUser.getId(), savedUser.getVersion()));
         return UserMapper.toUserDto(savedUser);
     }
 
-    private void validateEmail(String email) {
-        userRepository.findAll().forEach(user -> {
-            if (email.equals(user.getEmail())) {
-                throw new AlreadyExistException("Пользователь с email %s уже зарегистрирован".formatted(email));
+    /**
+     * Повторы email внутри пакета отсекаются за один проход, занятые email проверяются одним запросом,
+     * остальные пользователи сохраняются одной пакетной операцией. Если между проверкой и вставкой email
+     * успели занять, пакет повторяется поэлементно, чтобы ошибка досталась только конфликтующему элементу.
+     */
+    @Override
+    public List<BatchResultDto<UserDto>> createAll(List<UserDto> userDtos) {
+        List<BatchResultDto<UserDto>> results = new ArrayList<>(Collections.nCopies(userDtos.size(), null));
+        Map<String, Integer> indexByEmailKey = new LinkedHashMap<>();
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            Optional<String> violations = batchValidator.validate(userDto);
+            if (violations.isPresent()) {
+                results.set(i, BatchResultDto.failed(i, HttpStatus.BAD_REQUEST, violations.get()));
+            } else if (indexByEmailKey.putIfAbsent(userRepository.emailKey(userDto.getEmail()), i) != null) {
+                results.set(i, BatchResultDto.failed(i, HttpStatus.CONFLICT,
+                        "Email %s повторяется в пакете".formatted(userDto.getEmail())));
+            }
+        }
+
+        Set<String> taken = userRepository.findExistingEmails(indexByEmailKey.values().stream()
+                .map(i -> userDtos.get(i).getEmail())
+                .toList());
+        List<Integer> accepted = new ArrayList<>();
+        for (Integer i : indexByEmailKey.values()) {
+            String email = userDtos.get(i).getEmail();
+            if (taken.contains(email)) {
+                results.set(i, BatchResultDto.failed(i, HttpStatus.CONFLICT,
+                        "Пользователь с email %s уже зарегистрирован".formatted(email)));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        try {
+            List<User> saved = userRepository.saveAll(accepted.stream()
+                    .map(i -> UserMapper.toUser(userDtos.get(i)))
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < accepted.size(); i++) {
+                results.set(accepted.get(i), BatchResultDto.created(accepted.get(i), UserMapper.toUserDto(saved.get(i))));
+            }
+            eventPublisher.publishAll(saved.stream()
+                    .map(savedUser -> DomainEvent.userCreated(savedUser.getId(), savedUser.getVersion()))
+                    .toList());
+        } catch (AlreadyExistException e) {
+            for (Integer i : accepted) {
+                try {
+                    results.set(i, BatchResultDto.created(i, create(userDtos.get(i))));
+                } catch (AlreadyExistException conflict) {
+                    results.set(i, BatchResultDto.failed(i, HttpStatus.CONFLICT, conflict.getMessage()));
+                }
             }
-        });
+        }
+        return results;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#id", sync = true)
     public UserDto getById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь с id %d не найден".formatted(id)));
         return UserMapper.toUserDto(user);
     }
 
+    /**
+     * Пользователи отдаются сущностями из хранилища и пишутся в JSON без промежуточных DTO.
+     */
+    @Override
+    public List<User> getAll(PageQuery page) {
+        return userRepository.findAll(page);
+    }
+
     @Override
-    public List<UserDto> getAll() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+    public Stream<User> streamAll() {
+        return KeysetStreams.stream(userRepository::findAll, User::getId);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public UserDto update(Long id, UserUpdateDto userDto) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь с id %d не найден".formatted(id)));
 
-        if (userDto.getName() != null) {
-            existingUser.setName(userDto.getName());
-        }
-
-        if (userDto.getEmail() != null) {
-            validateEmail(userDto.getEmail());
-            existingUser.setEmail(userDto.getEmail());
-        }
+        User user = new User();
+        user.setId(existingUser.getId());
+        user.setName(userDto.getName() != null ? userDto.getName() : existingUser.getName());
+        user.setEmail(userDto.getEmail() != null ? userDto.getEmail() : existingUser.getEmail());
+        user.setVersion(existingUser.getVersion());
 
-        User updatedUser = userRepository.update(existingUser);
+        User updatedUser = userRepository.update(user);
+        eventPublisher.publish(DomainEvent.userUpdated(updatedUser.getId(), updatedUser.getVersion()));
         return UserMapper.toUserDto(updatedUser);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public void delete(Long id) {
+        if (userRepository.findById(id).isEmpty()) {
+            return;
+        }
+        ownedItemsCleanup.removeItemsOf(id);
+        itemRequestRepository.deleteAllByRequestorId(id);
         userRepository.deleteById(id);
+        eventPublisher.publish(DomainEvent.userDeleted(id));
     }
 }
@@ -0,0 +1,3 @@
+-- H2 has no expression indexes: a case-insensitive column gives the same uniqueness as lower(email) in PostgreSQL
+ALTER TABLE users ALTER COLUMN email SET DATA TYPE VARCHAR_IGNORECASE(512);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (email);
@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+-- Emails are unique ignoring case. The index used to be on the raw column under the name ux_users_email
+DROP INDEX IF EXISTS ux_users_email;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email));
@@ -0,0 +1,55 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id             BIGINT PRIMARY KEY,
+    name           VARCHAR(255) NOT NULL,
+    email          VARCHAR(512) NOT NULL,
+    version        BIGINT       NOT NULL DEFAULT 0,
+    items_revision BIGINT       NOT NULL DEFAULT 0
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS items_revision BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS requests (
+    id           BIGINT PRIMARY KEY,
+    description  VARCHAR(2000) NOT NULL,
+    requestor_id BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS items (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(2000) NOT NULL,
+    available   BOOLEAN       NOT NULL,
+    owner_id    BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    request_id  BIGINT REFERENCES requests (id) ON DELETE SET NULL,
+    version     BIGINT        NOT NULL DEFAULT 0,
+    revision    BIGINT        NOT NULL DEFAULT 0
+);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS revision BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_owner_revision ON items (owner_id, revision);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id         BIGINT PRIMARY KEY,
+    start_date TIMESTAMP   NOT NULL,
+    end_date   TIMESTAMP   NOT NULL,
+    item_id    BIGINT      NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    booker_id  BIGINT      NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    status     VARCHAR(16) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
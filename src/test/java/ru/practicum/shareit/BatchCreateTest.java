@@ -0,0 +1,97 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest(properties = {"shareit.rate-limit.enabled=false", "shareit.users.email-ignore-case=true"})
+class BatchCreateTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void userBatchCreatesValidUsersAndReportsEachFailure() {
+        userService.create(user("batch-taken@example.com"));
+
+        List<BatchResultDto<UserDto>> results = userService.createAll(List.of(
+                user("batch-first@example.com"),
+                user("not-an-email"),
+                user("Batch-First@Example.com"),
+                user("BATCH-TAKEN@example.com"),
+                user("batch-second@example.com")));
+
+        assertThat(results).extracting(BatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).extracting(BatchResultDto::getStatus).containsExactly(201, 400, 409, 409, 201);
+        assertThat(userRepository.findByEmail("batch-first@example.com")).isPresent();
+        assertThat(userRepository.findByEmail("batch-second@example.com")).isPresent();
+    }
+
+    @Test
+    void userBatchFallsBackToSingleCreatesWhenEmailIsTakenConcurrently() {
+        userService.create(user("race-taken@example.com"));
+        doReturn(Set.of()).when(userRepository).findExistingEmails(anyCollection());
+        long before = userRepository.count();
+
+        List<BatchResultDto<UserDto>> results = userService.createAll(List.of(
+                user("race-fresh@example.com"),
+                user("Race-Taken@example.com")));
+
+        assertThat(results).extracting(BatchResultDto::getStatus).containsExactly(201, 409);
+        assertThat(results.get(1).getError()).contains("Race-Taken@example.com");
+        assertThat(userRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void itemBatchCreatesValidItemsAndReportsEachFailure() {
+        UserDto owner = userService.create(user("batch-owner@example.com"));
+        ItemDto withMissingRequest = item("Пила");
+        withMissingRequest.setRequestId(Long.MAX_VALUE);
+
+        List<BatchResultDto<ItemDto>> results = itemService.createAll(List.of(
+                item("Дрель"),
+                item(" "),
+                withMissingRequest,
+                item("Молоток")), owner.getId());
+
+        assertThat(results).extracting(BatchResultDto::getStatus).containsExactly(201, 400, 404, 201);
+        Long firstId = results.get(0).getResult().getId();
+        assertThat(results.get(3).getResult().getId()).isEqualTo(firstId + 1);
+        assertThat(itemService.getById(firstId, owner.getId()).getName()).isEqualTo("Дрель");
+    }
+
+    private static UserDto user(String email) {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(email);
+        return user;
+    }
+
+    private static ItemDto item(String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.AopTestUtils;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Подтверждение и отклонение одного бронирования читают его ожидающим до того, как любое из них
+ * запишет статус: один запрос должен пройти, второй — получить 409, а сохранённый статус — остаться
+ * статусом победителя.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ConcurrentApproveTest {
+
+    @LocalServerPort
+    private int port;
+
+    @SpyBean
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void concurrentApproveAndRejectEndInOneSuccessAndOneConflict() throws Exception {
+        Long ownerId = userService.create(user("concurrent-approve-owner@example.com")).getId();
+        Long bookerId = userService.create(user("concurrent-approve-booker@example.com")).getId();
+        ItemDto item = new ItemDto();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+        BookingCreateDto booking = new BookingCreateDto();
+        booking.setItemId(itemId);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.create(booking, bookerId).getId();
+
+        CountDownLatch bothRead = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            Object read = invocation.callRealMethod();
+            bothRead.countDown();
+            bothRead.await(5, TimeUnit.SECONDS);
+            return read;
+        }).when(AopTestUtils.<BookingRepository>getUltimateTargetObject(bookingRepository)).findById(bookingId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HttpResponse<String>> approve = executor.submit(() -> approve(bookingId, ownerId, true));
+            Future<HttpResponse<String>> reject = executor.submit(() -> approve(bookingId, ownerId, false));
+            List<HttpResponse<String>> responses = List.of(approve.get(10, TimeUnit.SECONDS),
+                    reject.get(10, TimeUnit.SECONDS));
+
+            assertThat(responses).extracting(HttpResponse::statusCode).containsExactlyInAnyOrder(200, 409);
+            Booking.Status winner = responses.get(0).statusCode() == 200
+                    ? Booking.Status.APPROVED
+                    : Booking.Status.REJECTED;
+            assertThat(bookingService.getById(bookingId, ownerId).getStatus()).isEqualTo(winner);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> approve(Long bookingId, Long ownerId, boolean approved) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/bookings/" + bookingId + "?approved=" + approved))
+                .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static UserDto user(String email) {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(email);
+        return user;
+    }
+}
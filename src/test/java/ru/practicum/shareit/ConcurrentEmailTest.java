@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Email резервируется атомарно: из параллельных запросов, претендующих на один адрес, проходит ровно один,
+ * остальные получают 409, а индекс email указывает на победителя.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ConcurrentEmailTest {
+    private static final int THREADS = 16;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void concurrentPostsWithSameEmailCreateOneUser() throws Exception {
+        List<Callable<HttpResponse<String>>> posts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String body = "{\"name\":\"user %d\",\"email\":\"concurrent-email@example.com\"}".formatted(i);
+            posts.add(() -> send("POST", "/users", body));
+        }
+
+        List<HttpResponse<String>> responses = runTogether(posts);
+
+        assertThat(responses).extracting(HttpResponse::statusCode).filteredOn(status -> status == 201).hasSize(1);
+        assertThat(responses).extracting(HttpResponse::statusCode).filteredOn(status -> status != 201)
+                .hasSize(THREADS - 1)
+                .containsOnly(409);
+        assertThat(userRepository.findByEmail("concurrent-email@example.com")).isPresent();
+    }
+
+    @Test
+    void patchMovingEmailRacesWithPostOfSameEmail() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            String oldEmail = "moving-old" + round + "@example.com";
+            String newEmail = "moving-new" + round + "@example.com";
+            Long movingId = userService.create(user(oldEmail)).getId();
+
+            List<HttpResponse<String>> responses = runTogether(List.of(
+                    () -> send("PATCH", "/users/" + movingId, "{\"email\":\"%s\"}".formatted(newEmail)),
+                    () -> send("POST", "/users", "{\"name\":\"taker\",\"email\":\"%s\"}".formatted(newEmail))));
+
+            int patched = responses.get(0).statusCode();
+            int posted = responses.get(1).statusCode();
+            assertThat(List.of(patched, posted)).as("PATCH и POST в раунде %d", round)
+                    .isIn(List.of(200, 409), List.of(409, 201));
+            Long newOwnerId = userRepository.findByEmail(newEmail).orElseThrow().getId();
+            if (patched == 200) {
+                assertThat(newOwnerId).isEqualTo(movingId);
+                assertThat(userRepository.findByEmail(oldEmail)).isEmpty();
+            } else {
+                assertThat(newOwnerId).isNotEqualTo(movingId);
+                assertThat(userService.getById(movingId).getEmail()).isEqualTo(oldEmail);
+            }
+        }
+    }
+
+    private List<HttpResponse<String>> runTogether(List<Callable<HttpResponse<String>>> requests)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+            for (Callable<HttpResponse<String>> request : requests) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            List<HttpResponse<String>> responses = new ArrayList<>();
+            for (Future<HttpResponse<String>> future : futures) {
+                responses.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static UserDto user(String email) {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(email);
+        return user;
+    }
+}
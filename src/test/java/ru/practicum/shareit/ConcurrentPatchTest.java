@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.AopTestUtils;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Два PATCH одной вещи читают её до того, как любой из них запишет изменения: один должен пройти,
+ * второй — получить 409. Оба запроса удерживаются в findById, пока вещь не прочитают оба; чтения
+ * потребителя доменных событий (переиндексация созданной вещи) в счёт не идут. Заглушка ставится
+ * на сам объект хранилища: под профилем jpa шпион обёрнут транзакционным прокси.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ConcurrentPatchTest {
+
+    @LocalServerPort
+    private int port;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void conflictingPatchesEndInOneSuccessAndOneConflict() throws Exception {
+        UserDto owner = new UserDto();
+        owner.setName("owner");
+        owner.setEmail("concurrent-patch@example.com");
+        Long ownerId = userService.create(owner).getId();
+        ItemDto item = new ItemDto();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+
+        CountDownLatch bothRead = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            Object read = invocation.callRealMethod();
+            if (!Thread.currentThread().getName().startsWith("shareit-events-")) {
+                bothRead.countDown();
+                bothRead.await(5, TimeUnit.SECONDS);
+            }
+            return read;
+        }).when(AopTestUtils.<ItemRepository>getUltimateTargetObject(itemRepository)).findById(itemId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HttpResponse<String>> first = executor.submit(() -> patch(itemId, ownerId, "Перфоратор"));
+            Future<HttpResponse<String>> second = executor.submit(() -> patch(itemId, ownerId, "Шуруповёрт"));
+            List<HttpResponse<String>> responses = List.of(first.get(10, TimeUnit.SECONDS),
+                    second.get(10, TimeUnit.SECONDS));
+
+            assertThat(responses).extracting(HttpResponse::statusCode).containsExactlyInAnyOrder(200, 409);
+            HttpResponse<String> winner = responses.get(0).statusCode() == 200
+                    ? responses.get(0)
+                    : responses.get(1);
+            String winnerName = winner.body().contains("Перфоратор") ? "Перфоратор" : "Шуруповёрт";
+            assertThat(itemRepository.findById(itemId)).hasValueSatisfying(stored -> {
+                assertThat(stored.getName()).isEqualTo(winnerName);
+                assertThat(stored.getVersion()).isEqualTo(1L);
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> patch(Long itemId, Long ownerId, String name) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + itemId))
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"" + name + "\"}"))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ConcurrentWritesStressTest {
+    private static final int THREADS = 32;
+    private static final int USERS = 500;
+    private static final int ITEMS_PER_USER = 4;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void parallelCreatesProduceUniqueIdsWithoutLostUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Long> userIds = runConcurrently(executor, USERS, this::createUser);
+            assertThat(new HashSet<>(userIds)).hasSize(USERS);
+
+            List<Long> itemIds = runConcurrently(executor, USERS * ITEMS_PER_USER,
+                    i -> createItem(userIds.get(i % USERS), i));
+            assertThat(new HashSet<>(itemIds)).hasSize(USERS * ITEMS_PER_USER);
+
+            UserDto[] users = restTemplate.getForObject("/users", UserDto[].class);
+            assertThat(users).extracting(UserDto::getId).containsAll(userIds);
+
+            for (Long userId : userIds) {
+                ResponseEntity<ItemDto[]> response = restTemplate.exchange("/items", HttpMethod.GET,
+                        new HttpEntity<>(ownerHeaders(userId)), ItemDto[].class);
+                assertThat(response.getBody()).hasSize(ITEMS_PER_USER);
+            }
+
+            ItemDto[] found = restTemplate.getForObject("/items/search?text=stress-item", ItemDto[].class);
+            assertThat(found).extracting(ItemDto::getId).containsAll(itemIds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createUser(int index) {
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("stress" + index + "@example.com");
+        ResponseEntity<UserDto> response = restTemplate.postForEntity("/users", user, UserDto.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().getId();
+    }
+
+    private Long createItem(Long ownerId, int index) {
+        ItemDto item = new ItemDto();
+        item.setName("stress-item " + index);
+        item.setDescription("created concurrently");
+        item.setAvailable(true);
+        ResponseEntity<ItemDto> response = restTemplate.postForEntity("/items",
+                new HttpEntity<>(item, ownerHeaders(ownerId)), ItemDto.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().getId();
+    }
+
+    private HttpHeaders ownerHeaders(Long ownerId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(ownerId));
+        return headers;
+    }
+
+    private List<Long> runConcurrently(ExecutorService executor, int tasks, IntFunction<Long> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.apply(index);
+            }));
+        }
+        start.countDown();
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> future : futures) {
+            ids.add(future.get());
+        }
+        return ids;
+    }
+}
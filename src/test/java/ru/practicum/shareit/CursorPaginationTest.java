@@ -0,0 +1,145 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.pagination.PageResponses;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class CursorPaginationTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void followingNextCursorWalksAllUsers() {
+        for (int i = 0; i < 5; i++) {
+            createUser();
+        }
+        List<Long> all = ids(get("/users", null, UserDto[].class).getBody(), UserDto::getId);
+
+        assertThat(walk("/users?size=2", null, UserDto[].class, UserDto::getId)).containsExactlyElementsOf(all);
+        assertThat(walk("/users?size=" + all.size(), null, UserDto[].class, UserDto::getId))
+                .containsExactlyElementsOf(all);
+    }
+
+    @Test
+    void followingNextCursorWalksOwnerItemsAndSearch() {
+        Long ownerId = createUser();
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createItem(ownerId, "cursor-walk " + i));
+        }
+
+        assertThat(walk("/items?size=2", ownerId, ItemDto[].class, ItemDto::getId))
+                .containsExactlyElementsOf(created);
+        assertThat(walk("/items/search?text=cursor-walk&size=3", null, ItemDto[].class, ItemDto::getId))
+                .containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void shortPageHasNoNextCursorAndOffsetCountsFromCursor() {
+        Long ownerId = createUser();
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            created.add(createItem(ownerId, "cursor-offset " + i));
+        }
+        String cursor = PageQuery.encodeCursor(created.get(0));
+
+        ResponseEntity<ItemDto[]> page = get("/items?from=1&size=2&cursor=" + cursor, ownerId, ItemDto[].class);
+        assertThat(ids(page.getBody(), ItemDto::getId)).containsExactlyElementsOf(created.subList(2, 4));
+        assertThat(page.getHeaders().getFirst(PageResponses.NEXT_CURSOR_HEADER))
+                .isEqualTo(PageQuery.encodeCursor(created.get(3)));
+
+        ResponseEntity<ItemDto[]> shortPage = get("/items?from=2&size=2&cursor=" + cursor, ownerId, ItemDto[].class);
+        assertThat(ids(shortPage.getBody(), ItemDto::getId)).containsExactly(created.get(3));
+        assertThat(shortPage.getHeaders().containsKey(PageResponses.NEXT_CURSOR_HEADER)).isFalse();
+
+        ResponseEntity<ItemDto[]> tail = get("/items?size=2&cursor=" + PageQuery.encodeCursor(created.get(3)),
+                ownerId, ItemDto[].class);
+        assertThat(tail.getBody()).isEmpty();
+        assertThat(tail.getHeaders().containsKey(PageResponses.NEXT_CURSOR_HEADER)).isFalse();
+        assertThat(get("/items", ownerId, ItemDto[].class).getHeaders()
+                .containsKey(PageResponses.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThat(get("/users?size=2&cursor=not.base64", null, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(get("/items/search?text=drill&cursor=bm90LWEtY3Vyc29y", null, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private <T> List<Long> walk(String firstPage, Long userId, Class<T[]> type, Function<T, Long> id) {
+        List<Long> walked = new ArrayList<>();
+        String url = firstPage;
+        for (int pages = 0; pages < 1000; pages++) {
+            ResponseEntity<T[]> response = get(url, userId, type);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            walked.addAll(ids(response.getBody(), id));
+            String next = response.getHeaders().getFirst(PageResponses.NEXT_CURSOR_HEADER);
+            if (next == null) {
+                return walked;
+            }
+            url = firstPage + "&cursor=" + next;
+        }
+        throw new AssertionError("Курсор не дошёл до последней страницы");
+    }
+
+    private static <T> List<Long> ids(T[] body, Function<T, Long> id) {
+        return Arrays.stream(body).map(id).toList();
+    }
+
+    private <T> ResponseEntity<T> get(String url, Long userId, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set(USER_HEADER, userId.toString());
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("cursor" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+
+    private Long createItem(Long ownerId, String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сериализаторы ItemJson и UserJson пишут сущности напрямую; ответы должны совпадать с сериализацией DTO.
+ */
+@JsonTest
+class EntityJsonTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void itemWithoutRequestMatchesDto() throws Exception {
+        Item item = item(null);
+
+        assertThat(objectMapper.writeValueAsString(item))
+                .isEqualTo(objectMapper.writeValueAsString(ItemMapper.toItemDto(item)));
+        assertThat(objectMapper.writeValueAsString(ItemView.of(item)))
+                .isEqualTo(objectMapper.writeValueAsString(ItemMapper.toItemDto(item)));
+    }
+
+    @Test
+    void itemWithRequestMatchesDto() throws Exception {
+        ItemRequest request = new ItemRequest();
+        request.setId(7L);
+        Item item = item(request);
+
+        assertThat(objectMapper.writeValueAsString(item))
+                .isEqualTo(objectMapper.writeValueAsString(ItemMapper.toItemDto(item)));
+    }
+
+    @Test
+    void itemWithBookingsMatchesDto() throws Exception {
+        Item item = item(null);
+        Booking last = booking(11L, LocalDateTime.of(2024, 3, 1, 10, 0), LocalDateTime.of(2024, 3, 2, 10, 0, 30));
+        Booking next = booking(12L, LocalDateTime.of(2024, 4, 1, 9, 15, 5, 123_000_000),
+                LocalDateTime.of(2024, 4, 3, 18, 0));
+
+        ItemDto dto = ItemMapper.toItemDto(item);
+        dto.setLastBooking(BookingMapper.toBookingShortDto(last));
+        dto.setNextBooking(BookingMapper.toBookingShortDto(next));
+
+        assertThat(objectMapper.writeValueAsString(new ItemView(item, last, next)))
+                .isEqualTo(objectMapper.writeValueAsString(dto));
+        assertThat(objectMapper.writeValueAsString(new ItemView(item, null, next)))
+                .isEqualTo(objectMapper.writeValueAsString(withoutLast(dto)));
+    }
+
+    @Test
+    void userMatchesDto() throws Exception {
+        User user = user(3L);
+        user.setVersion(5L);
+
+        assertThat(objectMapper.writeValueAsString(user))
+                .isEqualTo(objectMapper.writeValueAsString(UserMapper.toUserDto(user)));
+    }
+
+    private static ItemDto withoutLast(ItemDto dto) {
+        dto.setLastBooking(null);
+        return dto;
+    }
+
+    private static Item item(ItemRequest request) {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Дрель \"Макита\"");
+        item.setDescription("Ударная дрель\nс кейсом");
+        item.setAvailable(true);
+        item.setOwner(user(2L));
+        item.setRequest(request);
+        item.setVersion(4L);
+        item.setRevision(9L);
+        return item;
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setBooker(user(5L));
+        return booking;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user " + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+}
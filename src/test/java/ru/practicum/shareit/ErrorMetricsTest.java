@@ -0,0 +1,181 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Каждый исход ErrorHandler попадает в http.server.requests с тегами статуса, исключения и outcome,
+ * а исключение сервиса — в тег exception таймера shareit.service.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ErrorMetricsTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String HTTP_REQUESTS = "http.server.requests";
+    private static final String SERVICE = "shareit.service";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void successIsTaggedWithoutException() throws InterruptedException {
+        Long userId = createUser();
+
+        assertRecorded(() -> get("/users/" + userId, null), HttpStatus.OK, "/users/{id}", "none", "SUCCESS");
+        assertThat(serviceCount(UserServiceImpl.class, "getById", "none")).isPositive();
+    }
+
+    @Test
+    void notFoundIsTaggedWithServiceException() throws InterruptedException {
+        double service = serviceCount(UserServiceImpl.class, "getById", "NoSuchElementException");
+
+        assertRecorded(() -> get("/users/" + Long.MAX_VALUE, null), HttpStatus.NOT_FOUND, "/users/{id}",
+                "NoSuchElementException", "CLIENT_ERROR");
+        assertThat(serviceCount(UserServiceImpl.class, "getById", "NoSuchElementException")).isEqualTo(service + 1);
+    }
+
+    @Test
+    void validationFailuresAreTaggedWithTheirOwnExceptions() throws InterruptedException {
+        assertRecorded(() -> post("/users", "{\"name\":\"user\",\"email\":\"\"}"), HttpStatus.BAD_REQUEST, "/users",
+                "MethodArgumentNotValidException", "CLIENT_ERROR");
+        assertRecorded(() -> get("/users/0", null), HttpStatus.BAD_REQUEST, "/users/{id}",
+                "ConstraintViolationException", "CLIENT_ERROR");
+        assertRecorded(() -> get("/users?size=2&cursor=not.base64", null), HttpStatus.BAD_REQUEST, "/users",
+                "ValidationException", "CLIENT_ERROR");
+    }
+
+    @Test
+    void forbiddenIsTaggedWithServiceException() throws InterruptedException {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        Long strangerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        BookingCreateDto booking = new BookingCreateDto();
+        booking.setItemId(itemService.create(item, ownerId).getId());
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.create(booking, bookerId).getId();
+
+        assertRecorded(() -> get("/bookings/" + bookingId, strangerId), HttpStatus.FORBIDDEN, "/bookings/{bookingId}",
+                "ForbiddenException", "CLIENT_ERROR");
+        assertThat(serviceCount(BookingServiceImpl.class, "getById", "ForbiddenException")).isPositive();
+    }
+
+    @Test
+    void conflictIsTaggedWithServiceException() throws InterruptedException {
+        UserDto existing = userService.getById(createUser());
+        double service = serviceCount(UserServiceImpl.class, "create", "AlreadyExistException");
+
+        assertRecorded(() -> post("/users", "{\"name\":\"copy\",\"email\":\"%s\"}".formatted(existing.getEmail())),
+                HttpStatus.CONFLICT, "/users", "AlreadyExistException", "CLIENT_ERROR");
+        assertThat(serviceCount(UserServiceImpl.class, "create", "AlreadyExistException")).isEqualTo(service + 1);
+    }
+
+    @Test
+    void unexpectedFailureIsServerError() throws InterruptedException {
+        assertRecorded(() -> get("/items", null), HttpStatus.INTERNAL_SERVER_ERROR, "/items",
+                "MissingRequestHeaderException", "SERVER_ERROR");
+    }
+
+    private void assertRecorded(Request request, HttpStatus status, String uri, String exception, String outcome)
+            throws InterruptedException {
+        double before = httpCount(status, uri, exception, outcome);
+
+        assertThat(request.send()).isEqualTo(status);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (httpCount(status, uri, exception, outcome) < before + 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(httpCount(status, uri, exception, outcome))
+                .as("%s %s %s %s", status.value(), uri, exception, outcome)
+                .isEqualTo(before + 1);
+    }
+
+    private double httpCount(HttpStatus status, String uri, String exception, String outcome) {
+        return meterRegistry.find(HTTP_REQUESTS)
+                .tag("status", Integer.toString(status.value()))
+                .tag("uri", uri)
+                .tag("exception", exception)
+                .tag("outcome", outcome)
+                .timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+
+    private double serviceCount(Class<?> service, String method, String exception) {
+        return meterRegistry.find(SERVICE)
+                .tag("class", service.getName())
+                .tag("method", method)
+                .tag("exception", exception)
+                .timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+
+    private HttpStatusCode get(String url, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set(USER_HEADER, userId.toString());
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode();
+    }
+
+    private HttpStatusCode post(String url, String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        return restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(json, headers), String.class)
+                .getStatusCode();
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("error-metrics" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        HttpStatusCode send();
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ItemCacheTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void cachesReadyDtoWithoutBookings() {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        BookingCreateDto booking = new BookingCreateDto();
+        booking.setItemId(itemId);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.create(booking, bookerId).getId();
+        bookingService.approve(bookingId, true, ownerId);
+
+        ItemDto forOwner = itemService.getById(itemId, ownerId);
+        ItemDto forOther = itemService.getById(itemId, bookerId);
+
+        assertThat(forOwner.getNextBooking().getId()).isEqualTo(bookingId);
+        assertThat(forOther.getNextBooking()).isNull();
+        ItemDto cached = cache().get(itemId, ItemDto.class);
+        assertThat(cached).isSameAs(forOther);
+        assertThat(cached.getNextBooking()).isNull();
+        assertThat(cached.getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    void updateEvictsOnlyUpdatedItem() {
+        Long ownerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        Long otherId = createItem(ownerId, "Пила");
+        itemService.getById(itemId, null);
+        itemService.getById(otherId, null);
+
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Перфоратор");
+        itemService.update(itemId, update, ownerId);
+
+        assertThat(cache().get(itemId)).isNull();
+        assertThat(cache().get(otherId)).isNotNull();
+        assertThat(itemService.getById(itemId, null).getName()).isEqualTo("Перфоратор");
+        assertThat(cache().get(itemId, ItemDto.class).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void deleteEvictsOnlyDeletedItem() {
+        Long ownerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        Long otherId = createItem(ownerId, "Пила");
+        itemService.getById(itemId, null);
+        itemService.getById(otherId, null);
+
+        itemService.delete(itemId);
+
+        assertThat(cache().get(itemId)).isNull();
+        assertThat(cache().get(otherId)).isNotNull();
+        assertThatThrownBy(() -> itemService.getById(itemId, null)).isInstanceOf(NoSuchElementException.class);
+        assertThat(cache().get(itemId)).isNull();
+    }
+
+    @Test
+    void ownerRemovalEvictsOnlyOwnersItems() {
+        Long ownerId = createUser();
+        Long otherOwnerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        Long otherId = createItem(otherOwnerId, "Пила");
+        itemService.getById(itemId, null);
+        itemService.getById(otherId, null);
+
+        userService.delete(ownerId);
+
+        assertThat(cache().get(itemId)).isNull();
+        assertThat(cache().get(otherId)).isNotNull();
+        assertThatThrownBy(() -> itemService.getById(itemId, null)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void hitsAndMissesReachActuator() {
+        Long ownerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        restTemplate.getForEntity("/items/" + itemId, String.class);
+        restTemplate.getForEntity("/items/" + itemId, String.class);
+        restTemplate.getForEntity("/items/" + itemId, String.class);
+
+        assertThat(cacheGets("miss")).isEqualTo(misses + 1);
+        assertThat(cacheGets("hit")).isEqualTo(hits + 2);
+    }
+
+    private double cacheGets(String result) {
+        JsonNode metric = restTemplate.getForObject(
+                "/actuator/metrics/cache.gets?tag=cache:" + CacheNames.ITEMS + "&tag=result:" + result, JsonNode.class);
+        return metric.get("measurements").get(0).get("value").asDouble();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheNames.ITEMS);
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("item-cache" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+
+    private Long createItem(Long ownerId, String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+}
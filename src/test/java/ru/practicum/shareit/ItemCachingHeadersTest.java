@@ -0,0 +1,164 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ItemCachingHeadersTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String REVISION_HEADER = "X-Items-Revision";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void returnsNotModifiedForMatchingETag() {
+        Long ownerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+
+        ResponseEntity<ItemDto> item = get("/items/" + itemId, ownerId, null, ItemDto.class);
+        assertThat(item.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(item.getHeaders().getETag()).isNotNull();
+        assertThat(item.getHeaders().getVary()).contains(USER_HEADER);
+        ResponseEntity<ItemDto> cachedItem = get("/items/" + itemId, ownerId, item.getHeaders().getETag(),
+                ItemDto.class);
+        assertThat(cachedItem.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(cachedItem.getBody()).isNull();
+
+        ResponseEntity<ItemDto[]> items = get("/items", ownerId, null, ItemDto[].class);
+        assertThat(items.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(items.getHeaders().getVary()).contains(USER_HEADER);
+        assertThat(get("/items", ownerId, items.getHeaders().getETag(), ItemDto[].class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void eTagChangesAfterUpdate() {
+        Long ownerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        String itemTag = get("/items/" + itemId, ownerId, null, ItemDto.class).getHeaders().getETag();
+        String listTag = get("/items", ownerId, null, ItemDto[].class).getHeaders().getETag();
+
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Перфоратор");
+        itemService.update(itemId, update, ownerId);
+
+        ResponseEntity<ItemDto> item = get("/items/" + itemId, ownerId, itemTag, ItemDto.class);
+        assertThat(item.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(item.getHeaders().getETag()).isNotEqualTo(itemTag);
+        assertThat(item.getBody().getName()).isEqualTo("Перфоратор");
+        ResponseEntity<ItemDto[]> items = get("/items", ownerId, listTag, ItemDto[].class);
+        assertThat(items.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(items.getHeaders().getETag()).isNotEqualTo(listTag);
+    }
+
+    @Test
+    void eTagChangesAfterBooking() {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        Long itemId = createItem(ownerId, "Дрель");
+        String itemTag = get("/items/" + itemId, ownerId, null, ItemDto.class).getHeaders().getETag();
+        String listTag = get("/items", ownerId, null, ItemDto[].class).getHeaders().getETag();
+
+        BookingCreateDto booking = new BookingCreateDto();
+        booking.setItemId(itemId);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.create(booking, bookerId).getId();
+        bookingService.approve(bookingId, true, ownerId);
+
+        ResponseEntity<ItemDto> item = get("/items/" + itemId, ownerId, itemTag, ItemDto.class);
+        assertThat(item.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(item.getHeaders().getETag()).isNotEqualTo(itemTag);
+        assertThat(item.getBody().getNextBooking().getId()).isEqualTo(bookingId);
+        ResponseEntity<ItemDto[]> items = get("/items", ownerId, listTag, ItemDto[].class);
+        assertThat(items.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(items.getHeaders().getETag()).isNotEqualTo(listTag);
+    }
+
+    @Test
+    void sinceReturnsChangesPageByPage() {
+        Long ownerId = createUser();
+        Long first = createItem(ownerId, "Дрель");
+        Long second = createItem(ownerId, "Пила");
+        Long third = createItem(ownerId, "Молоток");
+
+        ResponseEntity<ItemDto[]> page = get("/items?since=0&size=2", ownerId, null, ItemDto[].class);
+        assertThat(page.getBody()).extracting(ItemDto::getId).containsExactly(first, second);
+        assertThat(page.getHeaders().getVary()).contains(USER_HEADER);
+        String revision = page.getHeaders().getFirst(REVISION_HEADER);
+
+        page = get("/items?since=" + revision + "&size=2", ownerId, null, ItemDto[].class);
+        assertThat(page.getBody()).extracting(ItemDto::getId).containsExactly(third);
+        revision = page.getHeaders().getFirst(REVISION_HEADER);
+
+        page = get("/items?since=" + revision, ownerId, null, ItemDto[].class);
+        assertThat(page.getBody()).isEmpty();
+        assertThat(page.getHeaders().getFirst(REVISION_HEADER)).isEqualTo(revision);
+
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setAvailable(false);
+        itemService.update(first, update, ownerId);
+
+        page = get("/items?since=" + revision, ownerId, null, ItemDto[].class);
+        assertThat(page.getBody()).extracting(ItemDto::getId).containsExactly(first);
+        assertThat(page.getBody()[0].getAvailable()).isFalse();
+        assertThat(Long.parseLong(page.getHeaders().getFirst(REVISION_HEADER)))
+                .isGreaterThan(Long.parseLong(revision));
+    }
+
+    private <T> ResponseEntity<T> get(String url, Long userId, String ifNoneMatch, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_HEADER, String.valueOf(userId));
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("caching-headers" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+
+    private Long createItem(Long ownerId, String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+}
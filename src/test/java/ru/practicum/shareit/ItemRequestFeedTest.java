@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.pagination.PageResponses;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ItemRequestFeedTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void nextCursorContinuesFeedAfterLastRequest() {
+        Long requestorId = createUser();
+        Long viewerId = createUser();
+        Long first = createRequest(requestorId, "Нужна дрель");
+        Long second = createRequest(requestorId, "Нужна пила");
+        Long third = createRequest(requestorId, "Нужен молоток");
+
+        ResponseEntity<ItemRequestDto[]> page = get("/requests/all?size=2", viewerId, ItemRequestDto[].class);
+        assertThat(page.getBody()).extracting(ItemRequestDto::getId).containsExactly(third, second);
+        String cursor = page.getHeaders().getFirst(PageResponses.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isEqualTo(PageQuery.encodeCursor(second));
+
+        ResponseEntity<ItemRequestDto[]> next = get("/requests/all?size=1&cursor=" + cursor, viewerId,
+                ItemRequestDto[].class);
+        assertThat(next.getBody()).extracting(ItemRequestDto::getId).containsExactly(first);
+        assertThat(get("/requests/all?size=1&cursor=" + PageQuery.encodeCursor(Long.MAX_VALUE), viewerId,
+                String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void deletingUserRemovesRequestsButAnswersKeepRequestId() {
+        Long requestorId = createUser();
+        Long ownerId = createUser();
+        Long requestId = createRequest(requestorId, "Нужна лестница");
+        ItemDto answer = new ItemDto();
+        answer.setName("Лестница");
+        answer.setDescription("Стремянка");
+        answer.setAvailable(true);
+        answer.setRequestId(requestId);
+        Long answerId = itemService.create(answer, ownerId).getId();
+
+        userService.delete(requestorId);
+
+        assertThatThrownBy(() -> itemRequestService.getById(requestId, ownerId))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(itemRequestService.getAllOfOthers(ownerId, PageQuery.unpaged()))
+                .extracting(ItemRequestDto::getId).doesNotContain(requestId);
+        assertThat(itemRepository.findById(answerId).orElseThrow().getRequest().getId()).isEqualTo(requestId);
+    }
+
+    private <T> ResponseEntity<T> get(String url, Long userId, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_HEADER, userId.toString());
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private Long createRequest(Long requestorId, String description) {
+        ItemRequestCreateDto request = new ItemRequestCreateDto();
+        request.setDescription(description);
+        return itemRequestService.create(request, requestorId).getId();
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("request-feed" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class ItemSearchParamsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void rejectsFuzzyInSubstringMode() {
+        assertThat(status("/items/search?text=drill&fuzzy=true")).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(status("/items/search?text=drill&mode=substring&fuzzy=true")).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(status("/items/search?text=drill&mode=ranked&fuzzy=true")).isEqualTo(HttpStatus.OK);
+        assertThat(status("/items/search?text=drill")).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void rejectsCursorInRankedMode() {
+        assertThat(status("/items/search?text=drill&mode=ranked&cursor=MQ")).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private HttpStatusCode status(String url) {
+        return restTemplate.getForEntity(url, String.class).getStatusCode();
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Тот же конфликт при профиле jpa: второй запрос ждёт блокировку строки бронирования и видит его
+ * уже рассмотренным.
+ */
+@ActiveProfiles({"test", "jpa"})
+class JpaConcurrentApproveTest extends ConcurrentApproveTest {
+}
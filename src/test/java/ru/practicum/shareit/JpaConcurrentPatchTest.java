@@ -0,0 +1,11 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Тот же конфликт при профиле jpa: версию проверяет Hibernate, а OptimisticLockingFailureException
+ * отображается в 409.
+ */
+@ActiveProfiles({"test", "jpa"})
+class JpaConcurrentPatchTest extends ConcurrentPatchTest {
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRepositoryJpaImpl;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserRepositoryJpaImpl;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles({"test", "jpa"})
+class JpaStorageTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void jpaProfileSelectsJpaRepositories() {
+        assertThat(userRepository).isInstanceOf(UserRepositoryJpaImpl.class);
+        assertThat(itemRepository).isInstanceOf(ItemRepositoryJpaImpl.class);
+    }
+
+    @Test
+    void rejectsDuplicateEmailOnCreateAndUpdate() {
+        UserDto first = userService.create(user("jpa-first@example.com"));
+        UserDto second = userService.create(user("jpa-second@example.com"));
+
+        assertThatThrownBy(() -> userService.create(user("jpa-first@example.com")))
+                .isInstanceOf(AlreadyExistException.class);
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setEmail(first.getEmail());
+        assertThatThrownBy(() -> userService.update(second.getId(), update))
+                .isInstanceOf(AlreadyExistException.class);
+
+        update.setEmail("jpa-renamed@example.com");
+        assertThat(userService.update(second.getId(), update).getEmail()).isEqualTo("jpa-renamed@example.com");
+        assertThat(userService.create(user("jpa-second@example.com")).getId()).isNotNull();
+    }
+
+    @Test
+    void rejectsEmailThatDiffersOnlyInCase() {
+        UserDto first = userService.create(user("Jpa-Case@example.com"));
+
+        assertThatThrownBy(() -> userService.create(user("jpa-case@EXAMPLE.com")))
+                .isInstanceOf(AlreadyExistException.class);
+        assertThat(userRepository.findByEmail("JPA-CASE@example.com")).map(User::getId).contains(first.getId());
+    }
+
+    @Test
+    void searchesAndListsItemsByOwner() {
+        UserDto owner = userService.create(user("jpa-owner@example.com"));
+        ItemDto drill = itemService.create(item("Дрель 100%", "Аккумуляторная дрель", true), owner.getId());
+        itemService.create(item("Отвёртка", "Крестовая", true), owner.getId());
+        itemService.create(item("Дрель сломанная", "Не работает", false), owner.getId());
+
+        assertThat(itemService.search("дРеЛь", PageQuery.unpaged())).extracting(Item::getId).containsExactly(drill.getId());
+        assertThat(itemService.search("100%", PageQuery.unpaged())).extracting(Item::getId).containsExactly(drill.getId());
+        assertThat(itemService.search("_", PageQuery.unpaged())).isEmpty();
+        assertThat(itemService.getAllByOwnerId(owner.getId(), PageQuery.unpaged())).hasSize(3);
+
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setAvailable(false);
+        itemService.update(drill.getId(), update, owner.getId());
+        assertThat(itemService.search("дрель", PageQuery.unpaged())).isEmpty();
+
+        userService.delete(owner.getId());
+        assertThat(itemRepository.findAllByOwnerId(owner.getId())).isEmpty();
+        assertThatThrownBy(() -> itemService.getById(drill.getId(), owner.getId())).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void pagesRequestFeedByCursorAndDropsRequestsOfDeletedUser() {
+        UserDto requestor = userService.create(user("jpa-requestor@example.com"));
+        UserDto other = userService.create(user("jpa-other-requestor@example.com"));
+        UserDto viewer = userService.create(user("jpa-viewer@example.com"));
+        ItemRequestDto first = itemRequestService.create(request("Нужна лестница"), requestor.getId());
+        ItemRequestDto second = itemRequestService.create(request("Нужна пила"), other.getId());
+        ItemRequestDto third = itemRequestService.create(request("Нужен молоток"), requestor.getId());
+        ItemDto answer = item("Лестница", "Стремянка", true);
+        answer.setRequestId(first.getId());
+        Long answerId = itemService.create(answer, viewer.getId()).getId();
+
+        assertThat(itemRequestService.getAllOfOthers(viewer.getId(), new PageQuery(0, 0, 2)))
+                .extracting(ItemRequestDto::getId).containsExactly(third.getId(), second.getId());
+        assertThat(itemRequestService.getAllOfOthers(viewer.getId(), new PageQuery(second.getId(), 0, 2)))
+                .extracting(ItemRequestDto::getId).startsWith(first.getId());
+        assertThat(itemRequestService.getAllOfOthers(viewer.getId(), new PageQuery(third.getId(), 1, 1)))
+                .extracting(ItemRequestDto::getId).containsExactly(first.getId());
+
+        userService.delete(requestor.getId());
+
+        assertThat(itemRequestService.getAllOfOthers(viewer.getId(), new PageQuery(0, 0, 1)))
+                .extracting(ItemRequestDto::getId).containsExactly(second.getId());
+        assertThatThrownBy(() -> itemRequestService.getById(first.getId(), viewer.getId()))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(itemRepository.findById(answerId).orElseThrow().getRequest()).isNull();
+    }
+
+    private UserDto user(String email) {
+        UserDto user = new UserDto();
+        user.setName("jpa user");
+        user.setEmail(email);
+        return user;
+    }
+
+    private ItemDto item(String name, String description, boolean available) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+
+    private ItemRequestCreateDto request(String description) {
+        ItemRequestCreateDto request = new ItemRequestCreateDto();
+        request.setDescription(description);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.rate-limit.enabled=false")
+class NdjsonStreamingTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void streamsOwnerItemsOnePerLineAcrossFlushes() throws Exception {
+        Long ownerId = createUser();
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            created.add(createItem(ownerId, "ndjson " + i));
+        }
+
+        ResponseEntity<String> response = get("/items/stream", ownerId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody()).endsWith("\n");
+        List<JsonNode> records = parse(response.getBody());
+        assertThat(records).extracting(record -> record.get("id").asLong()).containsExactlyElementsOf(created);
+        assertThat(records.get(0).get("name").asText()).isEqualTo("ndjson 0");
+    }
+
+    @Test
+    void streamsSameUsersAsListing() throws Exception {
+        createUser();
+        createUser();
+        List<Long> listed = Arrays.stream(restTemplate.getForObject("/users", UserDto[].class))
+                .map(UserDto::getId)
+                .toList();
+
+        ResponseEntity<String> response = get("/users/stream", null);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(parse(response.getBody())).extracting(record -> record.get("id").asLong())
+                .containsExactlyElementsOf(listed);
+    }
+
+    @Test
+    void ownerWithoutItemsGetsEmptyStream() throws Exception {
+        ResponseEntity<String> response = get("/items/stream", createUser());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(parse(response.getBody())).isEmpty();
+    }
+
+    @Test
+    void unknownOwnerGetsNotFoundBeforeStreamStarts() {
+        ResponseEntity<String> response = get("/items/stream", Long.MAX_VALUE);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private List<JsonNode> parse(String body) throws Exception {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                records.add(objectMapper.readTree(line));
+            }
+        }
+        return records;
+    }
+
+    private ResponseEntity<String> get(String url, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set(USER_HEADER, userId.toString());
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private Long createUser() {
+        int index = USERS.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setName("user " + index);
+        user.setEmail("ndjson" + index + "@example.com");
+        return userService.create(user).getId();
+    }
+
+    private Long createItem(Long ownerId, String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.rate-limit.enabled=true",
+                "shareit.rate-limit.write.permits-per-second=0.1",
+                "shareit.rate-limit.write.burst=1"
+        })
+class RateLimitTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rejectsWriteOverBudgetWithRetryAfterEvenWhenUserHeaderChanges() throws InterruptedException {
+        ResponseEntity<String> first = restTemplate.postForEntity("/users", user("first"), String.class);
+        ResponseEntity<String> second = restTemplate.postForEntity("/users",
+                new HttpEntity<>(user("second"), userHeader("42")), String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 10L);
+        assertThat(restTemplate.getForEntity("/users", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (rejectedRequests() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(rejectedRequests()).isEqualTo(1);
+    }
+
+    private double rejectedRequests() {
+        return meterRegistry.find("http.server.requests")
+                .tag("status", "429")
+                .tag("uri", "/users")
+                .tag("exception", "TooManyRequestsException")
+                .tag("outcome", "CLIENT_ERROR")
+                .timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+
+    private static UserDto user(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@rate-limit.example.com");
+        return user;
+    }
+
+    private static HttpHeaders userHeader(String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", userId);
+        return headers;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Сравнивает холодный старт обычного jar и jar после AOT-обработки с архивом AppCDS: время до готовности
+ * контекста (от запуска JVM) и задержку первого запроса. Архив собирает профиль startup, тест запускается
+ * failsafe в mvn -Pstartup verify, а без архива пропускается.
+ * Время зависит от машины и её загрузки, поэтому оно только записывается в лог, а проверяется совпадение ответов.
+ */
+class StartupTimeTest {
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+    private static final int RUNS = 3;
+    private static final long START_TIMEOUT_SECONDS = 60;
+    private static final Pattern PORT = Pattern.compile("Tomcat started on port (\\d+)");
+    private static final Pattern STARTED =
+            Pattern.compile("Started ShareItApp in .* \\(process running for ([\\d.]+)\\)");
+
+    @Test
+    void aotWithCdsServesTheSameResponses() throws Exception {
+        String directory = System.getProperty("shareit.startup.cds-directory");
+        String jar = System.getProperty("shareit.startup.jar");
+        assumeTrue(directory != null && Files.exists(Path.of(directory, "shareit.jsa")),
+                "Архив AppCDS не собран: mvn -Pstartup verify");
+
+        Startup plain = measure(Path.of(directory), List.of("-jar", jar));
+        Startup optimized = measure(Path.of(directory),
+                List.of("-XX:SharedArchiveFile=shareit.jsa", "-Dspring.aot.enabled=true", "-jar", jar));
+
+        log.info("Обычный jar: контекст готов за {} мс, первый запрос {} мс; "
+                        + "AOT и AppCDS: контекст готов за {} мс, первый запрос {} мс",
+                plain.contextReadyMillis(), plain.firstRequestMillis(),
+                optimized.contextReadyMillis(), optimized.firstRequestMillis());
+        assertThat(optimized.responses()).isEqualTo(plain.responses());
+    }
+
+    /**
+     * Медианы по RUNS запускам; ответы берутся из первого запуска.
+     */
+    private Startup measure(Path directory, List<String> options) throws Exception {
+        List<Startup> runs = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            runs.add(start(directory, options));
+        }
+        return new Startup(
+                median(runs.stream().mapToLong(Startup::contextReadyMillis).toArray()),
+                median(runs.stream().mapToLong(Startup::firstRequestMillis).toArray()),
+                runs.get(0).responses());
+    }
+
+    private Startup start(Path directory, List<String> options) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("--server.port=0");
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            CompletableFuture<Integer> port = new CompletableFuture<>();
+            CompletableFuture<Long> ready = new CompletableFuture<>();
+            Thread.ofVirtual().start(() -> drain(process, port, ready));
+            long contextReadyMillis = ready.get(START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            String baseUrl = "http://localhost:" + port.get(START_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            HttpClient client = HttpClient.newHttpClient();
+            long startedAt = System.nanoTime();
+            String first = send(client, get(baseUrl + "/users"));
+            long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            return new Startup(contextReadyMillis, firstRequestMillis, exercise(client, baseUrl, first));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(START_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Выход приложения читается до конца, иначе при заполнении буфера процесс остановится на записи в лог.
+     */
+    private void drain(Process process, CompletableFuture<Integer> port, CompletableFuture<Long> ready) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher portMatcher = PORT.matcher(line);
+                if (portMatcher.find()) {
+                    port.complete(Integer.parseInt(portMatcher.group(1)));
+                }
+                Matcher startedMatcher = STARTED.matcher(line);
+                if (startedMatcher.find()) {
+                    ready.complete(Math.round(Double.parseDouble(startedMatcher.group(1)) * 1000));
+                }
+            }
+            IllegalStateException exited = new IllegalStateException("Приложение завершилось до готовности");
+            port.completeExceptionally(exited);
+            ready.completeExceptionally(exited);
+        } catch (IOException e) {
+            port.completeExceptionally(e);
+            ready.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Одни и те же запросы к контроллерам пользователей и вещей; хранилище в памяти, поэтому ответы
+     * свежего процесса совпадают в обоих режимах.
+     */
+    private List<String> exercise(HttpClient client, String baseUrl, String first) throws Exception {
+        List<String> responses = new ArrayList<>();
+        responses.add(first);
+        responses.add(send(client, post(baseUrl + "/users", null,
+                "{\"name\":\"startup\",\"email\":\"startup@example.com\"}")));
+        responses.add(send(client, get(baseUrl + "/users/1")));
+        responses.add(send(client, post(baseUrl + "/items", "1",
+                "{\"name\":\"Drill\",\"description\":\"cordless drill\",\"available\":true}")));
+        responses.add(send(client, get(baseUrl + "/items/1")));
+        responses.add(send(client, get(baseUrl + "/items/search?text=drill")));
+        responses.add(send(client, get(baseUrl + "/users/42")));
+        return responses;
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("X-Sharer-User-Id", "1").GET().build();
+    }
+
+    private HttpRequest post(String url, String userId, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", userId);
+        }
+        return builder.build();
+    }
+
+    private String send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() + " " + response.body();
+    }
+
+    private long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private record Startup(long contextReadyMillis, long firstRequestMillis, List<String> responses) {
+    }
+}
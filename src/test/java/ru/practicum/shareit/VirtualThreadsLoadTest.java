@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнивает пропускную способность /items/search и /users на платформенных и виртуальных потоках.
+ * Медленный ввод-вывод имитируется фильтром, который держит поток запроса IO_LATENCY_MS миллисекунд.
+ * Результат зависит от машины, поэтому тест помечен load и запускается только в mvn -Pload test.
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsLoadTest.class);
+    private static final int PLATFORM_THREADS = 20;
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final long IO_LATENCY_MS = 50;
+
+    @Test
+    void virtualThreadsServeMoreSlowClientsConcurrently() throws Exception {
+        double platform = measureThroughput(false);
+        double virtual = measureThroughput(true);
+
+        log.info("Платформенные потоки: {} запросов/с, виртуальные потоки: {} запросов/с",
+                Math.round(platform), Math.round(virtual));
+        assertThat(virtual).isGreaterThan(platform * 2);
+    }
+
+    private double measureThroughput(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            seed(client, baseUrl);
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                long startedAt = System.nanoTime();
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < CLIENTS; i++) {
+                    String path = i % 2 == 0 ? "/items/search?text=drill" : "/users";
+                    results.add(clients.submit(() -> {
+                        int ok = 0;
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            HttpResponse<Void> response = client.send(
+                                    HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                ok++;
+                            }
+                        }
+                        return ok;
+                    }));
+                }
+                int completed = 0;
+                for (Future<Integer> result : results) {
+                    completed += result.get();
+                }
+                double seconds = (System.nanoTime() - startedAt) / 1e9;
+                assertThat(completed).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+                return completed / seconds;
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        ApplicationContextInitializer<GenericApplicationContext> slowIo = context ->
+                context.registerBean("slowIoFilter", FilterRegistrationBean.class, () -> {
+                    FilterRegistrationBean<SlowIoFilter> registration = new FilterRegistrationBean<>(new SlowIoFilter());
+                    registration.addUrlPatterns("/users", "/items/search");
+                    return registration;
+                });
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .initializers(slowIo)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "shareit.rate-limit.enabled=false",
+                        "shareit.admission.max-concurrent-requests=0")
+                .run();
+    }
+
+    private void seed(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> user = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"name\":\"load\",\"email\":\"load@example.com\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String userId = user.body().replaceAll(".*\"id\":(\\d+).*", "$1");
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/items"))
+                        .header("Content-Type", "application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"name\":\"Drill\",\"description\":\"cordless drill\",\"available\":true}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static class SlowIoFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            try {
+                Thread.sleep(IO_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void allowsBurstThenAsksToWaitOneInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3, START);
+
+        assertThat(bucket.tryAcquire(START)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(START)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(START)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(START)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(START + SECOND / 20)).isEqualTo(SECOND / 20);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+
+        assertThat(bucket.tryAcquire(START)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(START + SECOND / 10 - 1)).isEqualTo(1L);
+        assertThat(bucket.tryAcquire(START + SECOND / 10)).isEqualTo(0L);
+    }
+
+    @Test
+    void doesNotSaveMoreThanBurstWhileIdle() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+        long later = START + 60 * SECOND;
+
+        assertThat(bucket.tryAcquire(later)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(later)).isEqualTo(0L);
+        assertThat(bucket.tryAcquire(later)).isGreaterThan(0L);
+    }
+
+    @Test
+    void concurrentCallersTakeExactlyBurstTokens() throws Exception {
+        int burst = 100;
+        TokenBucket bucket = new TokenBucket(1, burst, START);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> callers = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                callers.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int i = 0; i < burst; i++) {
+                        if (bucket.tryAcquire(START) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            int acquired = 0;
+            for (Future<Integer> caller : callers) {
+                acquired += caller.get();
+            }
+            assertThat(acquired).isEqualTo(burst);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
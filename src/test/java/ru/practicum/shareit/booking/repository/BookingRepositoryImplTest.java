@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingRepositoryImplTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final BookingRepositoryImpl repository = new BookingRepositoryImpl(Journal.NONE);
+    private final Item item = item(1L);
+
+    @Test
+    void rejectsOverlapOnSameItemOnly() {
+        repository.save(booking(item, 1, 3));
+
+        assertThatThrownBy(() -> repository.save(booking(item, 2, 4)))
+                .isInstanceOf(ValidationException.class);
+        assertThat(repository.save(booking(item(2L), 2, 4)).getId()).isNotNull();
+        assertThat(repository.save(booking(item, 3, 4)).getId()).isNotNull();
+    }
+
+    @Test
+    void rejectingBookingFreesSlotAndNextBooking() {
+        Booking approved = repository.save(booking(item, 1, 3));
+        repository.update(BookingMapper.withStatus(approved, Booking.Status.APPROVED));
+        assertThat(repository.findNextBooking(item.getId(), NOW)).map(Booking::getId).contains(approved.getId());
+
+        Booking rejected = repository.save(booking(item, 4, 6));
+        repository.update(BookingMapper.withStatus(rejected, Booking.Status.REJECTED));
+
+        assertThat(repository.findNextBooking(item.getId(), NOW)).map(Booking::getId).contains(approved.getId());
+        assertThat(repository.save(booking(item, 4, 6)).getId()).isNotNull();
+    }
+
+    @Test
+    void rejectsTransitionOfAlreadyReviewedBooking() {
+        Booking booking = repository.save(booking(item, 1, 3));
+        repository.update(BookingMapper.withStatus(booking, Booking.Status.APPROVED));
+
+        assertThatThrownBy(() -> repository.update(BookingMapper.withStatus(booking, Booking.Status.REJECTED)))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(repository.findById(booking.getId()).orElseThrow().getStatus()).isEqualTo(Booking.Status.APPROVED);
+        assertThat(repository.findNextBooking(item.getId(), NOW)).map(Booking::getId).contains(booking.getId());
+    }
+
+    private static Booking booking(Item item, int startHour, int endHour) {
+        User booker = new User();
+        booker.setId(10L);
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(NOW.plusHours(startHour));
+        booking.setEnd(NOW.plusHours(endHour));
+        booking.setStatus(Booking.Status.WAITING);
+        return booking;
+    }
+
+    private static Item item(long id) {
+        User owner = new User();
+        owner.setId(100L);
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(owner);
+        return item;
+    }
+}
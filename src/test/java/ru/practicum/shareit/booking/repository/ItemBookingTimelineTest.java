@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemBookingTimelineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final ItemBookingTimeline timeline = new ItemBookingTimeline();
+    private long nextId = 1;
+
+    @Test
+    void rejectsOverlappingIntervals() {
+        assertThat(timeline.tryReserve(booking(10, 12, Booking.Status.WAITING))).isTrue();
+
+        assertThat(timeline.tryReserve(booking(9, 11, Booking.Status.WAITING))).isFalse();
+        assertThat(timeline.tryReserve(booking(11, 13, Booking.Status.WAITING))).isFalse();
+        assertThat(timeline.tryReserve(booking(9, 13, Booking.Status.WAITING))).isFalse();
+        assertThat(timeline.tryReserve(booking(10, 11, Booking.Status.WAITING))).isFalse();
+        assertThat(timeline.tryReserve(booking(11, 12, Booking.Status.WAITING))).isFalse();
+    }
+
+    @Test
+    void acceptsAdjacentIntervals() {
+        assertThat(timeline.tryReserve(booking(10, 12, Booking.Status.WAITING))).isTrue();
+
+        assertThat(timeline.tryReserve(booking(8, 10, Booking.Status.WAITING))).isTrue();
+        assertThat(timeline.tryReserve(booking(12, 14, Booking.Status.WAITING))).isTrue();
+        assertThat(timeline.tryReserve(booking(9, 11, Booking.Status.WAITING))).isFalse();
+    }
+
+    @Test
+    void rejectsSecondBookingWithSameStart() {
+        assertThat(timeline.tryReserve(booking(10, 12, Booking.Status.WAITING))).isTrue();
+
+        assertThat(timeline.tryReserve(booking(10, 11, Booking.Status.WAITING))).isFalse();
+        assertThat(timeline.tryReserve(booking(10, 14, Booking.Status.WAITING))).isFalse();
+    }
+
+    @Test
+    void rejectedOrCanceledBookingFreesItsSlot() {
+        Booking rejected = booking(10, 12, Booking.Status.WAITING);
+        Booking canceled = booking(14, 16, Booking.Status.APPROVED);
+        timeline.tryReserve(rejected);
+        timeline.tryReserve(canceled);
+
+        rejected.setStatus(Booking.Status.REJECTED);
+        timeline.put(rejected);
+        canceled.setStatus(Booking.Status.CANCELED);
+        timeline.put(canceled);
+
+        assertThat(timeline.tryReserve(booking(10, 12, Booking.Status.WAITING))).isTrue();
+        assertThat(timeline.tryReserve(booking(14, 16, Booking.Status.WAITING))).isTrue();
+    }
+
+    @Test
+    void repeatedRejectionKeepsNewerBookingWithSameStart() {
+        Booking rejected = booking(10, 12, Booking.Status.WAITING);
+        timeline.tryReserve(rejected);
+        rejected.setStatus(Booking.Status.REJECTED);
+        timeline.put(rejected);
+        Booking replacement = booking(10, 12, Booking.Status.WAITING);
+        assertThat(timeline.tryReserve(replacement)).isTrue();
+
+        timeline.put(rejected);
+
+        assertThat(timeline.tryReserve(booking(11, 13, Booking.Status.WAITING))).isFalse();
+    }
+
+    @Test
+    void selectsLastAndNextAmongApprovedBookings() {
+        Booking earlier = booking(-10, -8, Booking.Status.APPROVED);
+        Booking last = booking(-1, 1, Booking.Status.APPROVED);
+        Booking waiting = booking(2, 3, Booking.Status.WAITING);
+        Booking next = booking(4, 6, Booking.Status.APPROVED);
+        Booking later = booking(8, 9, Booking.Status.APPROVED);
+        for (Booking booking : new Booking[]{later, waiting, earlier, next, last}) {
+            assertThat(timeline.tryReserve(booking)).isTrue();
+        }
+
+        assertThat(timeline.last(NOW)).contains(last);
+        assertThat(timeline.next(NOW)).contains(next);
+
+        next.setStatus(Booking.Status.REJECTED);
+        timeline.put(next);
+        waiting.setStatus(Booking.Status.APPROVED);
+        timeline.put(waiting);
+
+        assertThat(timeline.next(NOW)).contains(waiting);
+        assertThat(timeline.last(NOW.minusHours(2))).contains(earlier);
+        assertThat(timeline.next(NOW.plusHours(10))).isEmpty();
+        assertThat(timeline.last(NOW.minusHours(20))).isEmpty();
+    }
+
+    private Booking booking(int startHour, int endHour, Booking.Status status) {
+        Booking booking = new Booking();
+        booking.setId(nextId++);
+        booking.setStart(NOW.plusHours(startHour));
+        booking.setEnd(NOW.plusHours(endHour));
+        booking.setStatus(status);
+        return booking;
+    }
+}
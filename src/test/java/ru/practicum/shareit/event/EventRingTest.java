@@ -0,0 +1,181 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRingTest {
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private EventRing ring;
+
+    @AfterEach
+    void stopRing() {
+        if (ring != null) {
+            ring.stop(TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    void deliversEventsInOrderAcrossManyWrapArounds() {
+        ring = new EventRing(8, 3);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        ring.subscribe(events -> events.forEach(event -> received.add(event.entityId())));
+        ring.start();
+
+        long last = -1;
+        for (long id = 0; id < 1_000; id++) {
+            last = ring.publish(DomainEvent.itemCreated(id, 0L));
+        }
+        ring.awaitConsumed(last);
+
+        assertThat(last).isEqualTo(999L);
+        assertThat(received).containsExactlyElementsOf(LongStream.range(0, 1_000).boxed().toList());
+    }
+
+    @Test
+    void writerWaitsWhenSlowestConsumerIsFullBufferBehind() throws Exception {
+        ring = new EventRing(4, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        ring.subscribe(events -> {
+            await(release);
+            events.forEach(event -> received.add(event.entityId()));
+        });
+        ring.start();
+
+        AtomicLong last = new AtomicLong(-1);
+        Thread writer = new Thread(() -> {
+            for (long id = 0; id < 10; id++) {
+                last.set(ring.publish(DomainEvent.itemCreated(id, 0L)));
+            }
+        });
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        while (ring.backpressureWaits() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertThat(ring.backpressureWaits()).isGreaterThan(0L);
+        assertThat(writer.isAlive()).isTrue();
+        assertThat(received).isEmpty();
+
+        release.countDown();
+        writer.join(TIMEOUT_MILLIS);
+        ring.awaitConsumed(last.get());
+        assertThat(received).containsExactlyElementsOf(LongStream.range(0, 10).boxed().toList());
+    }
+
+    @Test
+    void awaitConsumedReturnsAfterEveryConsumerHandledEvent() {
+        ring = new EventRing(16, 4);
+        List<Long> fast = new CopyOnWriteArrayList<>();
+        List<Long> slow = new CopyOnWriteArrayList<>();
+        ring.subscribe(events -> events.forEach(event -> fast.add(event.entityId())));
+        ring.subscribe(events -> {
+            sleep(50);
+            events.forEach(event -> slow.add(event.entityId()));
+        });
+        ring.start();
+
+        long sequence = ring.publish(DomainEvent.itemUpdated(42L, 1L));
+        ring.awaitConsumed(sequence);
+
+        assertThat(fast).containsExactly(42L);
+        assertThat(slow).containsExactly(42L);
+        assertThat(ring.backlog()).isEqualTo(0L);
+    }
+
+    @Test
+    void stopDrainsPublishedEventsAndRejectsNewOnes() {
+        ring = new EventRing(1024, 16);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        ring.subscribe(events -> {
+            sleep(1);
+            events.forEach(event -> received.add(event.entityId()));
+        });
+        ring.start();
+        for (long id = 0; id < 500; id++) {
+            ring.publish(DomainEvent.itemCreated(id, 0L));
+        }
+
+        ring.stop(TIMEOUT_MILLIS);
+
+        assertThat(received).hasSize(500);
+        assertThat(ring.publish(DomainEvent.itemCreated(500L, 0L))).isEqualTo(-1L);
+    }
+
+    @Test
+    void retriesFailedBatchBeforeMovingOn() {
+        ring = new EventRing(16, 16);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> received = new CopyOnWriteArrayList<>();
+        ring.subscribe(events -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("временная ошибка");
+            }
+            events.forEach(event -> received.add(event.entityId()));
+        });
+        ring.start();
+
+        ring.awaitConsumed(ring.publish(DomainEvent.itemCreated(7L, 0L)));
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(received).containsExactly(7L);
+        assertThat(ring.failedBatches()).isEqualTo(0L);
+    }
+
+    @Test
+    void handsBatchToRecoveryAfterLastAttempt() {
+        ring = new EventRing(16, 16);
+        List<Long> recovered = new CopyOnWriteArrayList<>();
+        List<Long> received = new CopyOnWriteArrayList<>();
+        ring.subscribe(new DomainEventListener() {
+            @Override
+            public void onEvents(List<DomainEvent> events) {
+                if (events.stream().anyMatch(event -> event.entityId() == 7L)) {
+                    throw new IllegalStateException("постоянная ошибка");
+                }
+                events.forEach(event -> received.add(event.entityId()));
+            }
+
+            @Override
+            public void onFailure(List<DomainEvent> events, RuntimeException cause) {
+                events.forEach(event -> recovered.add(event.entityId()));
+            }
+        });
+        ring.start();
+
+        ring.awaitConsumed(ring.publish(DomainEvent.itemCreated(7L, 0L)));
+        ring.awaitConsumed(ring.publish(DomainEvent.itemCreated(8L, 0L)));
+
+        assertThat(recovered).containsExactly(7L);
+        assertThat(received).containsExactly(8L);
+        assertThat(ring.failedBatches()).isEqualTo(1L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactItemRepositoryImplTest {
+    private static final String[] WORDS = {"Дрель", "ДРЕЛЬ", "дрель", "Ёлка", "ЕЛКА", "İstanbul", "ISTANBUL",
+            "Straße", "STRASSE", "Ωμέγα", "ΣΟΦΙΑ", "Пила", "saw", "SAW"};
+    private static final String LETTERS = "аАбБеЕёЁлЛiIİıßsSσΣςxX ";
+
+    private final CompactItemRepositoryImpl repository = new CompactItemRepositoryImpl(0, Journal.NONE);
+
+    @Test
+    void deletedOwnerItemsAreHiddenAndNewOnesRejected() {
+        Item drill = repository.save(item(1L, "Дрель"));
+        Item kept = repository.save(item(2L, "Пила"));
+
+        repository.markOwnerDeleted(1L);
+
+        assertThat(repository.findById(drill.getId())).isEmpty();
+        assertThat(repository.findAllByOwnerId(1L, PageQuery.unpaged())).isEmpty();
+        assertThat(repository.search("дрель")).isEmpty();
+        assertThat(repository.findAll()).extracting(Item::getId).containsExactly(kept.getId());
+        assertThat(repository.findIdsByOwnerId(1L)).containsExactly(drill.getId());
+        assertThat(repository.findDeletedOwnerIds()).containsExactly(1L);
+        assertThatThrownBy(() -> repository.save(item(1L, "Лестница")))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void compactsAfterMostItemsAreDeleted() {
+        List<Long> kept = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Item saved = repository.save(item(1 + i % 3, "Вещь " + i));
+            if (i % 4 == 0) {
+                kept.add(saved.getId());
+            } else {
+                repository.deleteById(saved.getId());
+            }
+        }
+
+        assertThat(repository.count()).isEqualTo((long) kept.size());
+        assertThat(repository.findAll()).extracting(Item::getId).containsExactlyElementsOf(kept);
+        assertThat(repository.findById(2L)).isEmpty();
+        assertThat(repository.findById(kept.get(kept.size() - 1)).map(Item::getName)).contains("Вещь 2996");
+        assertThat(repository.findAllByOwnerId(1L, PageQuery.unpaged())).extracting(Item::getId)
+                .containsExactlyElementsOf(kept.stream().filter(id -> (id - 1) % 3 == 0).toList());
+        assertThat(repository.search("вещь 2996")).extracting(Item::getId).containsExactly(2997L);
+
+        Item added = repository.save(item(1L, "Новая"));
+        assertThat(added.getId()).isEqualTo(3001L);
+        assertThat(repository.findById(3001L)).isPresent();
+    }
+
+    @Test
+    void restoresItemsOutOfOrder() {
+        for (long id : new long[]{5, 2, 9, 1}) {
+            repository.restore(restored(id, id % 2 == 0 ? 1L : 2L, "Вещь " + id));
+        }
+        repository.restore(restored(5, 1L, "Вещь 5 изменена"));
+        repository.restoreDelete(2L);
+
+        assertThat(repository.findAll()).extracting(Item::getId).containsExactly(1L, 5L, 9L);
+        assertThat(repository.findById(5L).map(Item::getName)).contains("Вещь 5 изменена");
+        assertThat(repository.findAllByOwnerId(1L, PageQuery.unpaged())).extracting(Item::getId).containsExactly(5L);
+        assertThat(repository.findAllByOwnerId(2L, PageQuery.unpaged())).extracting(Item::getId)
+                .containsExactly(1L, 9L);
+        assertThat(repository.count()).isEqualTo(3L);
+        assertThat(repository.save(item(2L, "Новая")).getId()).isEqualTo(10L);
+    }
+
+    @Test
+    void searchReturnsSameItemsAsDefaultStore() {
+        CompactItemRepositoryImpl compact = new CompactItemRepositoryImpl(10_000, Journal.NONE);
+        ItemRepositoryImpl regular = new ItemRepositoryImpl(10_000, Journal.NONE);
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>(List.of(WORDS));
+        for (int step = 0; step < 600; step++) {
+            int action = random.nextInt(10);
+            List<Long> ids = regular.findAll().stream().map(Item::getId).toList();
+            if (action < 5 || ids.isEmpty()) {
+                String name = text(random);
+                String description = text(random);
+                boolean available = random.nextInt(4) > 0;
+                long ownerId = 1 + random.nextInt(5);
+                compact.save(item(ownerId, name, description, available));
+                regular.save(item(ownerId, name, description, available));
+                queries.add(name);
+            } else if (action < 8) {
+                long id = ids.get(random.nextInt(ids.size()));
+                String name = text(random);
+                boolean available = random.nextBoolean();
+                compact.update(changed(compact.findById(id).orElseThrow(), name, available));
+                regular.update(changed(regular.findById(id).orElseThrow(), name, available));
+            } else {
+                long id = ids.get(random.nextInt(ids.size()));
+                compact.deleteById(id);
+                regular.deleteById(id);
+            }
+            if (step % 20 == 0) {
+                assertSameSearchResults(compact, regular, queries, random);
+            }
+        }
+        assertSameSearchResults(compact, regular, queries, random);
+    }
+
+    @Test
+    void concurrentWritesKeepOwnerIndexesAndRevisions() throws Exception {
+        int threads = 8;
+        int itemsPerOwner = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long ownerId = t + 1;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < itemsPerOwner; i++) {
+                        Item saved = repository.save(item(ownerId, "Вещь " + ownerId + " " + i));
+                        if (i % 3 == 0) {
+                            repository.update(changed(saved, "Изменена " + ownerId + " " + i, true));
+                        }
+                        if (i % 5 == 0) {
+                            repository.deleteById(saved.getId());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int kept = itemsPerOwner - (itemsPerOwner + 4) / 5;
+        assertThat(repository.count()).isEqualTo((long) threads * kept);
+        Set<Long> ids = new HashSet<>();
+        for (long ownerId = 1; ownerId <= threads; ownerId++) {
+            List<Item> owned = repository.findAllByOwnerId(ownerId, PageQuery.unpaged());
+            assertThat(owned).hasSize(kept);
+            assertThat(owned).extracting(item -> item.getOwner().getId()).containsOnly(ownerId);
+            owned.forEach(item -> ids.add(item.getId()));
+            assertThat(repository.findRevisionByOwnerId(ownerId)).isEqualTo(itemsPerOwner + (itemsPerOwner + 2) / 3L);
+            assertThat(repository.search("изменена " + ownerId + " 3", PageQuery.unpaged())).isNotEmpty();
+        }
+        assertThat(ids).hasSize(threads * kept);
+        assertThat(repository.findAll()).extracting(Item::getId).isSorted();
+    }
+
+    @Test
+    void saveAllAssignsConsecutiveIdsAndPerOwnerRevisions() {
+        repository.save(item(1L, "Дрель"));
+
+        List<Item> saved = repository.saveAll(List.of(item(1L, "Пила"), item(2L, "Молоток"), item(1L, "Рубанок")));
+
+        assertThat(saved).extracting(Item::getId).containsExactly(2L, 3L, 4L);
+        assertThat(saved).extracting(Item::getRevision).containsExactly(2L, 1L, 3L);
+        assertThat(repository.findRevisionByOwnerId(1L)).isEqualTo(3L);
+        assertThat(repository.findIdsByOwnerId(1L)).containsExactly(1L, 2L, 4L);
+        assertThat(repository.search("рубанок", PageQuery.unpaged())).extracting(Item::getId).containsExactly(4L);
+    }
+
+    @Test
+    void saveAllStoresNothingForDeletedOwner() {
+        Item kept = repository.save(item(2L, "Пила"));
+        repository.markOwnerDeleted(1L);
+
+        assertThatThrownBy(() -> repository.saveAll(List.of(item(2L, "Молоток"), item(1L, "Дрель"))))
+                .isInstanceOf(NoSuchElementException.class);
+
+        assertThat(repository.findIdsByOwnerId(1L)).isEmpty();
+        assertThat(repository.findRevisionByOwnerId(1L)).isEqualTo(0L);
+        assertThat(repository.findAll()).extracting(Item::getId).contains(kept.getId());
+    }
+
+    private static void assertSameSearchResults(CompactItemRepositoryImpl compact, ItemRepositoryImpl regular,
+                                                List<String> texts, Random random) {
+        Set<String> queries = new HashSet<>();
+        for (String text : texts) {
+            for (int length = 1; length <= 4 && length <= text.length(); length++) {
+                int start = random.nextInt(text.length() - length + 1);
+                String query = text.substring(start, start + length);
+                queries.add(query);
+                queries.add(query.toUpperCase());
+            }
+            queries.add(text.toLowerCase());
+        }
+        for (String query : queries) {
+            assertThat(ids(compact.search(query, PageQuery.unpaged())))
+                    .as(query)
+                    .containsExactlyElementsOf(ids(regular.search(query, PageQuery.unpaged())));
+            PageQuery page = new PageQuery(50, 1, 5);
+            assertThat(ids(compact.search(query, page)))
+                    .as(query)
+                    .containsExactlyElementsOf(ids(regular.search(query, page)));
+        }
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+
+    private static String text(Random random) {
+        if (random.nextBoolean()) {
+            return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 1 + random.nextInt(8); i > 0; i--) {
+            text.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return text.toString();
+    }
+
+    private static Item changed(Item current, String name, boolean available) {
+        Item item = item(current.getOwner().getId(), name, current.getDescription(), available);
+        item.setId(current.getId());
+        item.setVersion(current.getVersion());
+        return item;
+    }
+
+    private static Item restored(long id, long ownerId, String name) {
+        Item item = item(ownerId, name);
+        item.setId(id);
+        item.setVersion(0L);
+        item.setRevision(id);
+        return item;
+    }
+
+    private static Item item(long ownerId, String name) {
+        return item(ownerId, name, name, true);
+    }
+
+    private static Item item(long ownerId, String name, String description, boolean available) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        return item;
+    }
+}
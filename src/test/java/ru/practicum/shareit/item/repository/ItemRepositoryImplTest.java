@@ -0,0 +1,221 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemRepositoryImplTest {
+    private final ItemRepositoryImpl repository = new ItemRepositoryImpl(0, Journal.NONE);
+    private final ItemRepositoryImpl cached = new ItemRepositoryImpl(10_000, Journal.NONE);
+
+    @Test
+    void saveAllAssignsConsecutiveIdsAndPerOwnerRevisions() {
+        repository.save(item(1L, "Дрель"));
+
+        List<Item> saved = repository.saveAll(List.of(item(1L, "Пила"), item(2L, "Молоток"), item(1L, "Рубанок")));
+
+        assertThat(saved).extracting(Item::getId).containsExactly(2L, 3L, 4L);
+        assertThat(saved).extracting(Item::getRevision).containsExactly(2L, 1L, 3L);
+        assertThat(saved).extracting(Item::getVersion).containsOnly(0L);
+        assertThat(repository.findRevisionByOwnerId(1L)).isEqualTo(3L);
+        assertThat(repository.findRevisionByOwnerId(2L)).isEqualTo(1L);
+        assertThat(repository.findIdsByOwnerId(1L)).containsExactly(1L, 2L, 4L);
+        assertThat(repository.search("рубанок", PageQuery.unpaged())).extracting(Item::getId).containsExactly(4L);
+    }
+
+    @Test
+    void saveAllStoresNothingForDeletedOwner() {
+        repository.markOwnerDeleted(1L);
+
+        assertThatThrownBy(() -> repository.saveAll(List.of(item(1L, "Пила"), item(1L, "Молоток"))))
+                .isInstanceOf(NoSuchElementException.class);
+
+        assertThat(repository.count()).isEqualTo(0L);
+        assertThat(repository.findIdsByOwnerId(1L)).isEmpty();
+        assertThat(repository.findRevisionByOwnerId(1L)).isEqualTo(0L);
+    }
+
+    @Test
+    void ownerListingReturnsOnlyOwnersItemsInIdOrder() {
+        Item drill = repository.save(item(1L, "Дрель"));
+        repository.save(item(2L, "Пила"));
+        Item hammer = repository.save(item(1L, "Молоток"));
+        repository.save(item(3L, "Рубанок"));
+        Item ladder = repository.save(item(1L, "Лестница"));
+
+        assertThat(repository.findAllByOwnerId(1L)).extracting(Item::getId)
+                .containsExactly(drill.getId(), hammer.getId(), ladder.getId());
+        assertThat(repository.findAllByOwnerId(4L)).isEmpty();
+
+        repository.update(changed(hammer, "Кувалда", false));
+        repository.deleteById(drill.getId());
+
+        assertThat(repository.findAllByOwnerId(1L)).extracting(Item::getName).containsExactly("Кувалда", "Лестница");
+        assertThat(repository.findIdsByOwnerId(1L)).containsExactly(hammer.getId(), ladder.getId());
+        assertThat(repository.findAllByOwnerId(2L)).extracting(Item::getName).containsExactly("Пила");
+    }
+
+    @Test
+    void ownerListingIsEmptyOnceOwnerIsMarkedDeleted() {
+        repository.save(item(1L, "Дрель"));
+        repository.save(item(2L, "Пила"));
+
+        repository.markOwnerDeleted(1L);
+
+        assertThat(repository.findAllByOwnerId(1L)).isEmpty();
+        assertThat(repository.findAllByOwnerId(2L)).extracting(Item::getName).containsExactly("Пила");
+    }
+
+    @Test
+    void ownerPagesCountOffsetFromCursorAndEndWithEmptyTail() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(repository.save(item(1L, "Дрель " + i)).getId());
+            repository.save(item(2L, "Пила " + i));
+        }
+
+        assertThat(ownerPage(new PageQuery(0, 0, 4))).containsExactlyElementsOf(ids.subList(0, 4));
+        assertThat(ownerPage(new PageQuery(ids.get(1), 1, 2))).containsExactlyElementsOf(ids.subList(3, 5));
+        assertThat(ownerPage(new PageQuery(ids.get(3), 0, 4))).containsExactlyElementsOf(ids.subList(4, 6));
+        assertThat(ownerPage(new PageQuery(ids.get(5), 0, 4))).isEmpty();
+        assertThat(ownerPage(new PageQuery(ids.get(3), 2, 4))).isEmpty();
+    }
+
+    @Test
+    void searchPagesSkipUnavailableItemsAndEndWithEmptyTail() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Item saved = repository.save(item(1L, "Дрель " + i));
+            if (i % 2 == 1) {
+                repository.update(changed(saved, saved.getName(), false));
+            } else {
+                ids.add(saved.getId());
+            }
+            repository.save(item(1L, "Пила " + i));
+        }
+
+        assertThat(searchPage(new PageQuery(0, 0, 2))).containsExactlyElementsOf(ids.subList(0, 2));
+        assertThat(searchPage(new PageQuery(ids.get(0), 1, 2))).containsExactly(ids.get(2));
+        assertThat(searchPage(new PageQuery(ids.get(1) + 1, 0, 2))).containsExactly(ids.get(2));
+        assertThat(searchPage(new PageQuery(ids.get(2), 0, 2))).isEmpty();
+    }
+
+    @Test
+    void saveEvictsOnlySearchesMatchingNewItem() {
+        search("дрель");
+        search("пила");
+        Item hiddenDrill = hidden(100L, "Дрель старая");
+        hidden(101L, "Пила старая");
+
+        Item saved = cached.save(item(1L, "Дрель новая"));
+
+        assertThat(search("дрель")).containsExactly(hiddenDrill.getId(), saved.getId());
+        assertThat(search("пила")).isEmpty();
+    }
+
+    @Test
+    void updateEvictsSearchesMatchingOldAndNewText() {
+        Item item = cached.save(item(1L, "Дрель"));
+        assertThat(search("дрель")).containsExactly(item.getId());
+        assertThat(search("пила")).isEmpty();
+        assertThat(search("молоток")).isEmpty();
+        Item hiddenDrill = hidden(100L, "Дрель");
+        hidden(101L, "Молоток");
+
+        item = cached.update(changed(item, "Пила", true));
+
+        assertThat(search("дрель")).containsExactly(hiddenDrill.getId());
+        assertThat(search("пила")).containsExactly(item.getId());
+
+        item = cached.update(changed(item, "Дрель", true));
+
+        assertThat(search("дрель")).containsExactly(item.getId(), hiddenDrill.getId());
+        assertThat(search("пила")).isEmpty();
+        assertThat(search("молоток")).isEmpty();
+    }
+
+    @Test
+    void deleteEvictsOnlySearchesMatchingDeletedItem() {
+        Item item = cached.save(item(1L, "Дрель"));
+        assertThat(search("дрель")).containsExactly(item.getId());
+        assertThat(search("пила")).isEmpty();
+        Item hiddenDrill = hidden(100L, "Дрель");
+        hidden(101L, "Пила");
+
+        cached.deleteById(item.getId());
+
+        assertThat(search("дрель")).containsExactly(hiddenDrill.getId());
+        assertThat(search("пила")).isEmpty();
+    }
+
+    @Test
+    void availabilityChangeEvictsSearchesMatchingItem() {
+        Item item = cached.save(item(1L, "Дрель"));
+        assertThat(search("дрель")).containsExactly(item.getId());
+        assertThat(search("пила")).isEmpty();
+        Item hiddenDrill = hidden(100L, "Дрель");
+        hidden(101L, "Пила");
+
+        item = cached.update(changed(item, "Дрель", false));
+
+        assertThat(search("дрель")).containsExactly(hiddenDrill.getId());
+
+        item = cached.update(changed(item, "Дрель", true));
+
+        assertThat(search("дрель")).containsExactly(item.getId(), hiddenDrill.getId());
+        assertThat(search("пила")).isEmpty();
+    }
+
+    private List<Long> ownerPage(PageQuery page) {
+        return repository.findAllByOwnerId(1L, page).stream().map(Item::getId).toList();
+    }
+
+    private List<Long> searchPage(PageQuery page) {
+        return repository.search("дрель", page).stream().map(Item::getId).toList();
+    }
+
+    private List<Long> search(String text) {
+        return cached.search(text, PageQuery.unpaged()).stream().map(Item::getId).toList();
+    }
+
+    /**
+     * Восстановление из журнала не сбрасывает кеш поиска (оно идёт до первого поиска), поэтому такая вещь
+     * попадает в результат закешированного запроса, только если этот запрос был сброшен.
+     */
+    private Item hidden(long id, String name) {
+        Item item = item(1L, name);
+        item.setId(id);
+        item.setVersion(0L);
+        item.setRevision(id);
+        cached.restore(item);
+        return item;
+    }
+
+    private static Item changed(Item current, String name, boolean available) {
+        Item item = item(current.getOwner().getId(), name);
+        item.setId(current.getId());
+        item.setVersion(current.getVersion());
+        item.setAvailable(available);
+        return item;
+    }
+
+    private static Item item(long ownerId, String name) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+}
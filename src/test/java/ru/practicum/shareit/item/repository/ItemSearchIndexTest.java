@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+    private static final String[] WORDS = {"Дрель", "дРЕЛЬ", "Ёлка", "ёЛКА", "Пила", "ПИЛА", "Drill", "dRILL",
+            "Saw", "SAW", "Лестница", "ladder", "LADDER", "Молоток", "hammer"};
+    private static final String LETTERS = "аАдДеЕёЁлЛрРьЬaAdDeEiIlLrRsSwW ";
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+    private final Map<Long, Item> items = new TreeMap<>();
+
+    @Test
+    void findsSameItemsAsLowerCaseContainsAfterRandomChanges() {
+        Random random = new Random(42);
+        long nextId = 1;
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            List<Long> ids = new ArrayList<>(items.keySet());
+            if (action < 5 || ids.isEmpty()) {
+                put(item(nextId++, text(random), text(random)));
+            } else if (action < 8) {
+                Item current = items.get(ids.get(random.nextInt(ids.size())));
+                put(random.nextBoolean()
+                        ? item(current.getId(), text(random), current.getDescription())
+                        : item(current.getId(), current.getName(), text(random)));
+            } else {
+                Long id = ids.get(random.nextInt(ids.size()));
+                index.remove(id);
+                items.remove(id);
+            }
+            if (step % 50 == 0) {
+                assertSameAsContains(random);
+            }
+        }
+        assertSameAsContains(random);
+    }
+
+    @Test
+    void searchStartsAfterGivenId() {
+        put(item(1L, "Дрель", "ударная"));
+        put(item(2L, "Пила", "по дереву"));
+        put(item(3L, "ДРЕЛЬ", "аккумуляторная"));
+
+        assertThat(index.search("дР", 0)).containsExactly(1L, 3L);
+        assertThat(index.search("дР", 1)).containsExactly(3L);
+        assertThat(index.search("дрель", 1)).containsExactly(3L);
+        assertThat(index.search("дрель", 3)).isEmpty();
+    }
+
+    @Test
+    void updateAndRemoveDropOldText() {
+        put(item(1L, "Дрель", "ударная"));
+        put(item(1L, "Пила", "ударная"));
+
+        assertThat(index.search("дрель", 0)).isEmpty();
+        assertThat(index.search("д", 0)).containsExactly(1L);
+        assertThat(index.search("пил", 0)).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("д", 0)).isEmpty();
+        assertThat(index.search("пила", 0)).isEmpty();
+    }
+
+    private void assertSameAsContains(Random random) {
+        for (int length = 1; length <= 5; length++) {
+            for (int i = 0; i < 20; i++) {
+                String query = random.nextBoolean() ? fragment(random, length) : letters(random, length);
+                if (query.isBlank()) {
+                    continue;
+                }
+                long afterId = random.nextInt(4) == 0 ? random.nextInt(items.size() + 1) : 0;
+                assertThat(index.search(query, afterId))
+                        .as("query \"%s\" after %d", query, afterId)
+                        .containsExactlyElementsOf(expected(query, afterId));
+            }
+        }
+    }
+
+    private List<Long> expected(String query, long afterId) {
+        String lowerCaseQuery = query.toLowerCase();
+        return items.values().stream()
+                .filter(item -> item.getId() > afterId)
+                .filter(item -> item.getName().toLowerCase().contains(lowerCaseQuery)
+                        || item.getDescription().toLowerCase().contains(lowerCaseQuery))
+                .map(Item::getId)
+                .toList();
+    }
+
+    private String fragment(Random random, int length) {
+        if (items.isEmpty()) {
+            return letters(random, length);
+        }
+        List<Item> stored = new ArrayList<>(items.values());
+        Item item = stored.get(random.nextInt(stored.size()));
+        String source = random.nextBoolean() ? item.getName() : item.getDescription();
+        if (source.length() < length) {
+            return letters(random, length);
+        }
+        int start = random.nextInt(source.length() - length + 1);
+        StringBuilder query = new StringBuilder();
+        for (char c : source.substring(start, start + length).toCharArray()) {
+            query.append(random.nextBoolean() ? Character.toUpperCase(c) : Character.toLowerCase(c));
+        }
+        return query.toString();
+    }
+
+    private void put(Item item) {
+        index.put(item);
+        items.put(item.getId(), item);
+    }
+
+    private static String text(Random random) {
+        if (random.nextBoolean()) {
+            return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        }
+        return letters(random, 1 + random.nextInt(8));
+    }
+
+    private static String letters(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return text.toString();
+    }
+
+    private static Item item(long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongSetIndexTest {
+    private static final int INITIAL_MASK = 15;
+
+    private final LongSetIndex index = new LongSetIndex();
+
+    @Test
+    void getReturnsSortedCopy() {
+        index.add(1L, 30L);
+        index.add(1L, 10L);
+        index.add(1L, 20L);
+        index.add(1L, 10L);
+
+        long[] values = index.get(1L);
+        values[0] = 99L;
+
+        assertThat(index.get(1L)).containsExactly(10L, 20L, 30L);
+        assertThat(index.get(2L)).isEmpty();
+    }
+
+    @Test
+    void removingKeyFromCollisionChainShiftsFollowersBack() {
+        List<Long> chain = collidingKeys(4);
+        for (long key : chain) {
+            index.add(key, key * 10);
+        }
+
+        index.remove(chain.get(0), chain.get(0) * 10);
+        assertThat(index.get(chain.get(0))).isEmpty();
+        for (long key : chain.subList(1, chain.size())) {
+            assertThat(index.get(key)).containsExactly(key * 10);
+        }
+
+        index.remove(chain.get(2), chain.get(2) * 10);
+        assertThat(index.get(chain.get(1))).containsExactly(chain.get(1) * 10);
+        assertThat(index.get(chain.get(2))).isEmpty();
+        assertThat(index.get(chain.get(3))).containsExactly(chain.get(3) * 10);
+
+        index.add(chain.get(0), 1L);
+        assertThat(index.get(chain.get(0))).containsExactly(1L);
+        assertThat(index.get(chain.get(3))).containsExactly(chain.get(3) * 10);
+    }
+
+    @Test
+    void keepsAllKeysWhenGrowing() {
+        for (long key = 1; key <= 1000; key++) {
+            index.add(key, key);
+            index.add(key, -key);
+        }
+
+        for (long key = 1; key <= 1000; key++) {
+            assertThat(index.get(key)).containsExactly(-key, key);
+        }
+    }
+
+    @Test
+    void matchesReferenceUnderRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        Map<Long, TreeSet<Long>> reference = new TreeMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long key = 1 + random.nextInt(200);
+            long value = random.nextInt(8);
+            if (random.nextInt(3) == 0) {
+                index.remove(key, value);
+                TreeSet<Long> set = reference.get(key);
+                if (set != null && set.remove(value) && set.isEmpty()) {
+                    reference.remove(key);
+                }
+            } else {
+                index.add(key, value);
+                reference.computeIfAbsent(key, k -> new TreeSet<>()).add(value);
+            }
+        }
+
+        for (long key = 1; key <= 200; key++) {
+            TreeSet<Long> expected = reference.getOrDefault(key, new TreeSet<>());
+            assertThat(index.get(key)).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    private static List<Long> collidingKeys(int count) {
+        List<Long> keys = new ArrayList<>();
+        int home = LongSetIndex.mix(1L) & INITIAL_MASK;
+        for (long key = 1; keys.size() < count; key++) {
+            if ((LongSetIndex.mix(key) & INITIAL_MASK) == home) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
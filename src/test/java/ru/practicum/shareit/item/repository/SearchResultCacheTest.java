@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.pagination.PageQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+    private final SearchResultCache cache = new SearchResultCache(10_000);
+    private final List<String> loads = new ArrayList<>();
+
+    @Test
+    void invalidatesOnlyQueriesContainedInText() {
+        for (String query : List.of("д", "др", "дрел", "ель", "дрель ударная", "пила", "молоток", "дрель!")) {
+            get(query);
+        }
+        loads.clear();
+
+        cache.invalidateMatching("дрель ударная");
+
+        for (String query : List.of("д", "др", "дрел", "ель", "дрель ударная", "пила", "молоток", "дрель!")) {
+            get(query);
+        }
+        assertThat(loads).containsExactly("д", "др", "дрел", "ель", "дрель ударная");
+    }
+
+    @Test
+    void keepsPagesOfUnrelatedQueriesAndDropsAllPagesOfMatchingOne() {
+        get("пила", PageQuery.unpaged());
+        get("пила", new PageQuery(0, 0, 10));
+        get("дрель", PageQuery.unpaged());
+        get("дрель", new PageQuery(5, 0, 10));
+        loads.clear();
+
+        cache.invalidateMatching("аккумуляторная дрель");
+        get("пила", PageQuery.unpaged());
+        get("пила", new PageQuery(0, 0, 10));
+        get("дрель", PageQuery.unpaged());
+        get("дрель", new PageQuery(5, 0, 10));
+
+        assertThat(loads).containsExactly("дрель", "дрель");
+    }
+
+    @Test
+    void ignoresMissingText() {
+        get("дрель");
+        loads.clear();
+
+        cache.invalidateMatching(null);
+        get("дрель");
+
+        assertThat(loads).isEmpty();
+    }
+
+    @Test
+    void staysWithinIdLimitAndForgetsEvictedKeys() {
+        SearchResultCache bounded = new SearchResultCache(20);
+        for (int i = 0; i < 30; i++) {
+            bounded.get("запрос " + i, PageQuery.unpaged(), () -> List.of(1L, 2L, 3L));
+        }
+
+        long weight = bounded.weightedSize();
+        assertThat(weight).isLessThanOrEqualTo(20);
+        assertThat(bounded.trackedKeys()).isEqualTo((int) (weight / 4));
+
+        bounded.invalidateMatching("запрос 1 запрос 2 запрос 3");
+        assertThat(bounded.trackedKeys()).isEqualTo((int) (bounded.weightedSize() / 4));
+    }
+
+    private List<Long> get(String query) {
+        return get(query, PageQuery.unpaged());
+    }
+
+    private List<Long> get(String query, PageQuery page) {
+        Supplier<List<Long>> loader = () -> {
+            loads.add(query);
+            return List.of(1L);
+        };
+        return cache.get(query, page, loader);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.DomainEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankedIndexUpdaterTest {
+    private final FlakyItemRepository itemRepository = new FlakyItemRepository();
+    private final RankedSearchIndex index = new RankedSearchIndex(itemRepository);
+    private final RankedIndexUpdater updater = new RankedIndexUpdater(itemRepository, index);
+
+    @Test
+    void reindexesItemsOfFailedBatchOneByOne() {
+        Item drill = itemRepository.save(item("Дрель"));
+        Item saw = itemRepository.save(item("Пила"));
+        itemRepository.failing.add(saw.getId());
+        List<DomainEvent> batch = List.of(DomainEvent.itemCreated(drill.getId(), 0L),
+                DomainEvent.itemCreated(saw.getId(), 0L));
+
+        assertThatThrownBy(() -> updater.onEvents(batch)).isInstanceOf(IllegalStateException.class);
+        updater.onFailure(batch, new IllegalStateException());
+
+        assertThat(index.search("дрель", 0, 10, false)).containsExactly(drill.getId());
+        assertThat(index.search("пила", 0, 10, false)).isEmpty();
+    }
+
+    @Test
+    void retriesStaleItemsWithNextBatch() {
+        Item saw = itemRepository.save(item("Пила"));
+        itemRepository.failing.add(saw.getId());
+        List<DomainEvent> failed = List.of(DomainEvent.itemCreated(saw.getId(), 0L));
+        updater.onFailure(failed, new IllegalStateException());
+
+        itemRepository.failing.clear();
+        Item hammer = itemRepository.save(item("Молоток"));
+        updater.onEvents(List.of(DomainEvent.itemCreated(hammer.getId(), 0L)));
+
+        assertThat(index.search("пила", 0, 10, false)).containsExactly(saw.getId());
+        assertThat(index.search("молоток", 0, 10, false)).containsExactly(hammer.getId());
+    }
+
+    private static Item item(String name) {
+        User owner = new User();
+        owner.setId(1L);
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private static class FlakyItemRepository extends ItemRepositoryImpl {
+        private final Set<Long> failing = new HashSet<>();
+
+        FlakyItemRepository() {
+            super(0, Journal.NONE);
+        }
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            if (failing.contains(id)) {
+                throw new IllegalStateException("Хранилище недоступно");
+            }
+            return super.findById(id);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedSearchIndexTest {
+    private final RankedSearchIndex index = new RankedSearchIndex(new ItemRepositoryImpl(0, Journal.NONE));
+
+    @Test
+    void levenshteinDistanceStopsAboveLimit() {
+        assertThat(RankedSearchIndex.distance("kitten", "sitting", 5)).isEqualTo(3);
+        assertThat(RankedSearchIndex.distance("дрел", "трел", 1)).isEqualTo(1);
+        assertThat(RankedSearchIndex.distance("", "abc", 5)).isEqualTo(3);
+        assertThat(RankedSearchIndex.distance("abcdef", "uvwxyz", 1)).isEqualTo(2);
+        assertThat(RankedSearchIndex.distance("kitten", "sitting", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void ranksNameMatchAboveDescriptionMatch() {
+        put(1L, "Набор инструментов", "Дрель, отвёртка и ключи", true);
+        put(2L, "Дрель", "Ударная", true);
+
+        assertThat(index.search("дрель", 0, 10, false)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void ranksShorterFieldAboveLongerOne() {
+        put(1L, "Дрель ударная сетевая с кейсом", "Инструмент", true);
+        put(2L, "Дрель", "Инструмент", true);
+
+        assertThat(index.search("дрели", 0, 10, false)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void sumsScoresOfQueryTermsAndPagesByRank() {
+        put(1L, "Дрель", "Сетевая", true);
+        put(2L, "Дрель", "Аккумуляторная", true);
+        put(3L, "Дрель", "Сетевая", true);
+        put(4L, "Пила", "Сетевая", false);
+
+        assertThat(index.search("дрель аккумуляторная", 0, 10, false)).containsExactly(2L, 1L, 3L);
+        assertThat(index.search("дрель аккумуляторная", 1, 1, false)).containsExactly(1L);
+        assertThat(index.search("дрель аккумуляторная", 3, 10, false)).isEmpty();
+        assertThat(index.search("пила", 0, 10, false)).isEmpty();
+    }
+
+    @Test
+    void fuzzyExpandsUnknownTermsByLength() {
+        put(1L, "Кот", "Игрушка", true);
+        put(2L, "Молоток", "Слесарный", true);
+        put(3L, "Перфоратор", "Мощный", true);
+
+        assertThat(index.search("малоток", 0, 10, false)).isEmpty();
+        assertThat(index.search("малоток", 0, 10, true)).containsExactly(2L);
+        assertThat(index.search("малатак", 0, 10, true)).isEmpty();
+        assertThat(index.search("кит", 0, 10, true)).isEmpty();
+        assertThat(index.search("пирфаратор", 0, 10, true)).containsExactly(3L);
+        assertThat(index.search("пирфаратар", 0, 10, true)).isEmpty();
+    }
+
+    @Test
+    void fuzzyExpandsOnlyTermsMissingFromIndex() {
+        put(1L, "Дрель", "Инструмент", true);
+        put(2L, "Трель", "Инструмент", true);
+
+        assertThat(index.search("дрель", 0, 10, true)).containsExactly(1L);
+        assertThat(index.search("фрель", 0, 10, true)).containsExactlyInAnyOrder(1L, 2L);
+
+        put(3L, "Фрель", "Инструмент", true);
+        assertThat(index.search("фрель", 0, 10, true)).containsExactly(3L);
+    }
+
+    @Test
+    void fuzzyRanksCloserTermsFirst() {
+        put(1L, "Пирфоратар", "Мощный", true);
+        put(2L, "Перфоратар", "Мощный", true);
+
+        assertThat(index.search("перфоратор", 0, 10, true)).containsExactly(2L, 1L);
+    }
+
+    private void put(long id, String name, String description, boolean available) {
+        User owner = new User();
+        owner.setId(1L);
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        index.put(item);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void splitsOnNonLetters() {
+        assertThat(TextAnalyzer.terms("Дрель, 18V-аккумулятор!")).containsExactly("дрел", "18v", "аккумулятор");
+        assertThat(TextAnalyzer.terms("  ")).isEmpty();
+        assertThat(TextAnalyzer.terms(null)).isEmpty();
+    }
+
+    @Test
+    void reducesRussianWordFormsToOneStem() {
+        assertThat(TextAnalyzer.terms("дрель дрели дрелью ДРЕЛЯМИ")).containsOnly("дрел");
+        assertThat(TextAnalyzer.terms("пила пилы пилой")).containsOnly("пил");
+        assertThat(TextAnalyzer.terms("Ёлка ёлки елка")).containsOnly("елк");
+    }
+
+    @Test
+    void keepsStemAtLeastThreeCharacters() {
+        assertThat(TextAnalyzer.stem("ось")).isEqualTo("ось");
+        assertThat(TextAnalyzer.stem("кот")).isEqualTo("кот");
+        assertThat(TextAnalyzer.stem("used")).isEqualTo("used");
+        assertThat(TextAnalyzer.stem("bus")).isEqualTo("bus");
+    }
+
+    @Test
+    void reducesEnglishPluralsAndSuffixes() {
+        assertThat(TextAnalyzer.stem("batteries")).isEqualTo("battery");
+        assertThat(TextAnalyzer.stem("boxes")).isEqualTo("box");
+        assertThat(TextAnalyzer.stem("drills")).isEqualTo("drill");
+        assertThat(TextAnalyzer.stem("drilling")).isEqualTo("drill");
+        assertThat(TextAnalyzer.stem("painted")).isEqualTo("paint");
+        assertThat(TextAnalyzer.stem("glass")).isEqualTo("glass");
+    }
+}
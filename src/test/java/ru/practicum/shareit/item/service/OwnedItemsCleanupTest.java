@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.cache.CacheNames;
+import ru.practicum.shareit.event.DomainEventPublisher;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OwnedItemsCleanupTest {
+    private static final long OWNER_ID = 1L;
+    private static final long OTHER_OWNER_ID = 2L;
+
+    private final ItemRepositoryImpl itemRepository = new ItemRepositoryImpl(0, Journal.NONE);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.ITEMS);
+    private final DomainEventPublisher eventPublisher =
+            new DomainEventPublisher(List.of(), 16, 16, "eventual", new SimpleMeterRegistry());
+    private final List<Runnable> background = new ArrayList<>();
+
+    @Test
+    void syncCleanupDeletesItemsAndRejectsNewOnes() {
+        Item drill = itemRepository.save(item("Дрель", OWNER_ID));
+        itemRepository.save(item("Пила", OWNER_ID));
+        Item kept = itemRepository.save(item("Молоток", OTHER_OWNER_ID));
+        Cache cache = cacheManager.getCache(CacheNames.ITEMS);
+        cache.put(drill.getId(), "cached");
+
+        cleanup(false).removeItemsOf(OWNER_ID);
+
+        assertThat(itemRepository.findIdsByOwnerId(OWNER_ID)).isEmpty();
+        assertThat(itemRepository.findAll()).extracting(Item::getId).containsExactly(kept.getId());
+        assertThat(cache.get(drill.getId())).isNull();
+        assertThatThrownBy(() -> itemRepository.save(item("Лестница", OWNER_ID)))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void asyncCleanupHidesItemsUntilBackgroundDeletionFinishes() {
+        Item drill = itemRepository.save(item("Дрель", OWNER_ID));
+        itemRepository.save(item("Пила", OWNER_ID));
+        Cache cache = cacheManager.getCache(CacheNames.ITEMS);
+        cache.put(drill.getId(), "cached");
+
+        cleanup(true).removeItemsOf(OWNER_ID);
+
+        assertThat(background).hasSize(1);
+        assertThat(itemRepository.findById(drill.getId())).isEmpty();
+        assertThat(itemRepository.findAllByOwnerId(OWNER_ID, PageQuery.unpaged())).isEmpty();
+        assertThat(itemRepository.findAll()).isEmpty();
+        assertThat(itemRepository.count()).isEqualTo(2L);
+        assertThat(cache.get(drill.getId())).isNull();
+        assertThatThrownBy(() -> itemRepository.save(item("Лестница", OWNER_ID)))
+                .isInstanceOf(NoSuchElementException.class);
+
+        background.forEach(Runnable::run);
+
+        assertThat(itemRepository.count()).isEqualTo(0L);
+        assertThat(itemRepository.findIdsByOwnerId(OWNER_ID)).isEmpty();
+        assertThatThrownBy(() -> itemRepository.save(item("Лестница", OWNER_ID)))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    private OwnedItemsCleanup cleanup(boolean async) {
+        return new OwnedItemsCleanup(itemRepository, eventPublisher, cacheManager, async, background::add);
+    }
+
+    private static Item item(String name, long ownerId) {
+        User owner = new User();
+        owner.setId(ownerId);
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+}
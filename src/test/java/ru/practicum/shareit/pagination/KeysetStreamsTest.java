@@ -0,0 +1,55 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetStreamsTest {
+    private final List<PageQuery> fetched = new ArrayList<>();
+
+    @Test
+    void readsAllIdsChunkByChunkAfterLastId() {
+        List<Long> result = KeysetStreams.stream(3, source(7), Function.identity()).toList();
+
+        assertThat(result).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(fetched).containsExactly(new PageQuery(0, 0, 3), new PageQuery(3, 0, 3), new PageQuery(6, 0, 3));
+    }
+
+    @Test
+    void fetchesOneEmptyChunkWhenSizeIsMultipleOfChunk() {
+        assertThat(KeysetStreams.stream(3, source(6), Function.identity()).toList()).hasSize(6);
+
+        assertThat(fetched).extracting(PageQuery::afterId).containsExactly(0L, 3L, 6L);
+    }
+
+    @Test
+    void emptySourceIsFetchedOnce() {
+        assertThat(KeysetStreams.stream(3, source(0), Function.identity()).toList()).isEmpty();
+
+        assertThat(fetched).hasSize(1);
+    }
+
+    @Test
+    void fetchesNextChunkOnlyWhenPreviousIsConsumed() {
+        List<Long> firstFour = KeysetStreams.stream(2, source(100), Function.identity()).limit(4).toList();
+
+        assertThat(firstFour).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(fetched).extracting(PageQuery::afterId).containsExactly(0L, 2L);
+    }
+
+    private Function<PageQuery, List<Long>> source(long size) {
+        return page -> {
+            fetched.add(page);
+            return LongStream.rangeClosed(page.afterId() + 1, size)
+                    .skip(page.offset())
+                    .limit(page.size())
+                    .boxed()
+                    .toList();
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageQueryTest {
+
+    @Test
+    void missingParametersMeanUnpagedFromStart() {
+        PageQuery page = PageQuery.of(null, null, null);
+
+        assertThat(page).isEqualTo(PageQuery.unpaged());
+        assertThat(page.isPaged()).isFalse();
+    }
+
+    @Test
+    void cursorCombinesWithOffsetAndSize() {
+        PageQuery page = PageQuery.of(3, 10, PageQuery.encodeCursor(42));
+
+        assertThat(page).isEqualTo(new PageQuery(42, 3, 10));
+        assertThat(page.isPaged()).isTrue();
+        assertThat(page.after(57)).isEqualTo(new PageQuery(57, 0, 10));
+    }
+
+    @Test
+    void cursorRoundTripsLargeIds() {
+        assertThat(PageQuery.of(null, 1, PageQuery.encodeCursor(Long.MAX_VALUE)).afterId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(PageQuery.encodeCursor(1)).doesNotContain("=");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> PageQuery.of(null, 10, "не base64"))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> PageQuery.of(null, 10, encode("before:1")))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> PageQuery.of(null, 10, encode("after:x")))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> PageQuery.of(null, 10, encode("after:")))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.request.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemRequestRepositoryImplTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final ItemRequestRepositoryImpl repository = new ItemRequestRepositoryImpl(Journal.NONE);
+    private final List<Long> feed = new ArrayList<>();
+
+    @BeforeEach
+    void fillFeed() {
+        long[] requestors = {1, 2, 3, 2, 1, 3, 2, 3, 1, 2};
+        int[] hours = {1, 2, 2, 3, 4, 4, 4, 5, 6, 6};
+        List<ItemRequest> saved = new ArrayList<>();
+        for (int i = 0; i < requestors.length; i++) {
+            saved.add(repository.save(request(requestors[i], hours[i])));
+        }
+        saved.stream()
+                .filter(request -> request.getRequestor().getId() != 1L)
+                .sorted((a, b) -> a.getCreated().equals(b.getCreated())
+                        ? Long.compare(b.getId(), a.getId())
+                        : b.getCreated().compareTo(a.getCreated()))
+                .map(ItemRequest::getId)
+                .forEach(feed::add);
+    }
+
+    @Test
+    void cursorPagesCoverFeedNewestFirstWithoutOwnRequests() {
+        List<Long> paged = new ArrayList<>();
+        long afterId = 0;
+        List<ItemRequest> page;
+        do {
+            page = repository.findAllByRequestorIdNot(1L, new PageQuery(afterId, 0, 2));
+            page.stream().map(ItemRequest::getId).forEach(paged::add);
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).getId();
+        } while (page.size() == 2);
+
+        assertThat(paged).containsExactlyElementsOf(feed);
+    }
+
+    @Test
+    void offsetCountsFromCursor() {
+        long afterId = feed.get(1);
+
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(afterId, 1, 2)))
+                .extracting(ItemRequest::getId)
+                .containsExactlyElementsOf(feed.subList(3, 5));
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(afterId, 0, 100)))
+                .extracting(ItemRequest::getId)
+                .containsExactlyElementsOf(feed.subList(2, feed.size()));
+    }
+
+    @Test
+    void returnsEmptyTailAfterLastRequest() {
+        long last = feed.get(feed.size() - 1);
+
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(last, 0, 10))).isEmpty();
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(feed.get(0), feed.size(), 10))).isEmpty();
+    }
+
+    @Test
+    void cursorMayPointToOwnRequest() {
+        ItemRequest own = repository.findAllByRequestorId(1L).get(0);
+
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(own.getId(), 0, 10)))
+                .extracting(ItemRequest::getId)
+                .containsExactlyElementsOf(feed.stream()
+                        .filter(id -> repository.findById(id).orElseThrow().getCreated().isBefore(own.getCreated()))
+                        .toList());
+    }
+
+    @Test
+    void rejectsUnknownCursor() {
+        assertThatThrownBy(() -> repository.findAllByRequestorIdNot(1L, new PageQuery(1_000, 0, 10)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void deletingRequestorRemovesRequestsAndRejectsNewOnes() {
+        List<Long> removed = repository.findAllByRequestorId(2L).stream().map(ItemRequest::getId).toList();
+
+        repository.deleteAllByRequestorId(2L);
+
+        assertThat(repository.findAllByRequestorId(2L)).isEmpty();
+        assertThat(removed).allSatisfy(id -> assertThat(repository.findById(id)).isEmpty());
+        assertThat(repository.findAllByRequestorIdNot(1L, new PageQuery(0, 0, 100)))
+                .extracting(ItemRequest::getId)
+                .containsExactlyElementsOf(feed.stream().filter(id -> !removed.contains(id)).toList());
+        assertThat(repository.findAll()).hasSize(10 - removed.size());
+        assertThatThrownBy(() -> repository.save(request(2L, 7)))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(repository.save(request(3L, 7)).getRequestor().getId()).isEqualTo(3L);
+    }
+
+    private static ItemRequest request(long requestorId, int hour) {
+        User requestor = new User();
+        requestor.setId(requestorId);
+        ItemRequest request = new ItemRequest();
+        request.setDescription("запрос " + requestorId + " " + hour);
+        request.setRequestor(requestor);
+        request.setCreated(NOW.plusHours(hour));
+        return request;
+    }
+}
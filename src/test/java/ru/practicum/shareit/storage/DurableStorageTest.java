@@ -0,0 +1,244 @@
+package ru.practicum.shareit.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepositoryImpl;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepositoryImpl;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepositoryImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepositoryImpl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DurableStorageTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void restoresSnapshotAndJournalTailAfterCrash() throws IOException {
+        Storage before = Storage.open(directory);
+        User owner = before.users.save(user("owner", "owner@example.com"));
+        User requestor = before.users.save(user("requestor", "requestor@example.com"));
+        ItemRequest request = before.requests.save(request("Нужна дрель", requestor));
+        Item drill = before.items.save(item("Дрель", "Ударная дрель", owner, request));
+        Item saw = before.items.save(item("Пила", "Ножовка", owner, null));
+        before.storage.snapshot();
+
+        drill.setDescription("Ударная дрель с кейсом");
+        before.items.update(drill);
+        before.items.deleteById(saw.getId());
+        User late = before.users.save(user("late", "late@example.com"));
+        Item hammer = before.items.save(item("Молоток", "Слесарный молоток", late, null));
+        List<String> expected = state(before);
+        before.journal.close();
+
+        Storage after = Storage.open(directory);
+        assertThat(state(after)).containsExactlyElementsOf(expected);
+        assertThat(after.items.findById(drill.getId()).orElseThrow().getRequest()).isEqualTo(request);
+        assertThat(after.items.findById(hammer.getId()).orElseThrow().getOwner()).isEqualTo(late);
+        assertThat(after.users.save(user("next", "next@example.com")).getId()).isEqualTo(late.getId() + 1);
+        assertThat(after.items.save(item("Лестница", "Стремянка", late, null)).getId())
+                .isEqualTo(hammer.getId() + 1);
+        after.close();
+    }
+
+    @Test
+    void restoresSameStateAfterCleanShutdown() throws IOException {
+        Storage before = Storage.open(directory);
+        User owner = before.users.save(user("owner", "owner@example.com"));
+        before.items.saveAll(List.of(
+                item("Дрель", "Ударная дрель", owner, null),
+                item("Пила", "Ножовка", owner, null)));
+        Item updated = before.items.findAllByOwnerId(owner.getId(), PageQuery.unpaged()).get(0);
+        updated.setAvailable(false);
+        before.items.update(updated);
+        List<String> expected = state(before);
+        before.close();
+
+        Storage after = Storage.open(directory);
+        assertThat(state(after)).containsExactlyElementsOf(expected);
+        assertThat(after.items.findRevisionByOwnerId(owner.getId()))
+                .isEqualTo(before.items.findRevisionByOwnerId(owner.getId()));
+        after.close();
+    }
+
+    @Test
+    void finishesInterruptedOwnerDeletionOnRestore() throws IOException {
+        Storage before = Storage.open(directory);
+        User owner = before.users.save(user("owner", "owner@example.com"));
+        User other = before.users.save(user("other", "other@example.com"));
+        Item first = before.items.save(item("Дрель", "Ударная дрель", owner, null));
+        before.items.save(item("Пила", "Ножовка", owner, null));
+        Item kept = before.items.save(item("Молоток", "Слесарный молоток", other, null));
+        before.items.markOwnerDeleted(owner.getId());
+        before.storage.snapshot();
+        before.items.deleteAllById(List.of(first.getId()));
+        before.journal.close();
+
+        Storage after = Storage.open(directory);
+        assertThat(after.items.findIdsByOwnerId(owner.getId())).isEmpty();
+        assertThat(after.items.findAll()).extracting(Item::getId).containsExactly(kept.getId());
+        assertThat(after.items.findDeletedOwnerIds()).containsExactly(owner.getId());
+        assertThatThrownBy(() -> after.items.save(item("Лестница", "Стремянка", owner, null)))
+                .isInstanceOf(NoSuchElementException.class);
+        after.journal.close();
+
+        Storage replayed = Storage.open(directory);
+        assertThat(replayed.items.findDeletedOwnerIds()).containsExactly(owner.getId());
+        assertThat(replayed.items.count()).isEqualTo(1L);
+        replayed.close();
+    }
+
+    @Test
+    void keepsRequestsOfDeletedRequestorDeletedAfterRestart() throws IOException {
+        Storage before = Storage.open(directory);
+        User requestor = before.users.save(user("requestor", "requestor@example.com"));
+        User other = before.users.save(user("other", "other@example.com"));
+        ItemRequest snapshotted = before.requests.save(request("Нужна дрель", requestor));
+        ItemRequest kept = before.requests.save(request("Нужна пила", other));
+        before.storage.snapshot();
+        ItemRequest journaled = before.requests.save(request("Нужен молоток", requestor));
+        before.requests.deleteAllByRequestorId(requestor.getId());
+        before.journal.close();
+
+        Storage after = Storage.open(directory);
+        assertThat(after.requests.findById(snapshotted.getId())).isEmpty();
+        assertThat(after.requests.findById(journaled.getId())).isEmpty();
+        assertThat(after.requests.findAllByRequestorId(requestor.getId())).isEmpty();
+        assertThat(after.requests.findAllByRequestorIdNot(other.getId(), PageQuery.unpaged())).isEmpty();
+        assertThat(after.requests.findAll()).extracting(ItemRequest::getId).containsExactly(kept.getId());
+        after.close();
+
+        Storage replayed = Storage.open(directory);
+        assertThat(replayed.requests.findAll()).extracting(ItemRequest::getId).containsExactly(kept.getId());
+        replayed.close();
+    }
+
+    @Test
+    void restoresBookingsAndTheirItemTimelines() throws IOException {
+        Storage before = Storage.open(directory);
+        User owner = before.users.save(user("owner", "owner@example.com"));
+        User booker = before.users.save(user("booker", "booker@example.com"));
+        Item drill = before.items.save(item("Дрель", "Ударная дрель", owner, null));
+        Booking approved = before.bookings.save(booking(drill, booker, 1, 3));
+        before.storage.snapshot();
+        before.bookings.update(BookingMapper.withStatus(approved, Booking.Status.APPROVED));
+        Booking waiting = before.bookings.save(booking(drill, booker, 5, 7));
+        before.journal.close();
+
+        Storage after = Storage.open(directory);
+        assertThat(after.bookings.findById(approved.getId()).orElseThrow().getStatus())
+                .isEqualTo(Booking.Status.APPROVED);
+        assertThat(after.bookings.findById(waiting.getId()).orElseThrow().getItem().getName()).isEqualTo("Дрель");
+        assertThat(after.bookings.findNextBooking(drill.getId(), NOW).orElseThrow().getId())
+                .isEqualTo(approved.getId());
+        assertThat(after.bookings.findAllByBookerId(booker.getId(), BookingState.ALL, NOW))
+                .extracting(Booking::getId).containsExactly(waiting.getId(), approved.getId());
+        assertThat(after.bookings.findAllByOwnerId(owner.getId(), BookingState.ALL, NOW)).hasSize(2);
+        assertThat(after.bookings.save(booking(drill, booker, 8, 9)).getId()).isEqualTo(waiting.getId() + 1);
+        assertThatThrownBy(() -> after.bookings.save(booking(drill, booker, 2, 6)))
+                .isInstanceOf(ValidationException.class);
+        after.close();
+
+        Storage replayed = Storage.open(directory);
+        assertThat(replayed.bookings.findAll()).hasSize(3);
+        assertThatThrownBy(() -> replayed.bookings.save(booking(drill, booker, 6, 8)))
+                .isInstanceOf(ValidationException.class);
+        replayed.close();
+    }
+
+    private static List<String> state(Storage storage) {
+        List<String> users = storage.users.findAll(PageQuery.unpaged()).stream()
+                .map(user -> "user %d %s %s v%d".formatted(user.getId(), user.getName(), user.getEmail(),
+                        user.getVersion()))
+                .toList();
+        List<String> requests = storage.requests.findAll().stream()
+                .sorted(Comparator.comparing(ItemRequest::getId))
+                .map(request -> "request %d %s %d %s".formatted(request.getId(), request.getDescription(),
+                        request.getRequestor().getId(), request.getCreated()))
+                .toList();
+        List<String> items = storage.items.findAll().stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .map(item -> "item %d %s %s %s owner=%d request=%s v%d r%d".formatted(item.getId(), item.getName(),
+                        item.getDescription(), item.getAvailable(), item.getOwner().getId(),
+                        item.getRequest() == null ? null : item.getRequest().getId(), item.getVersion(),
+                        item.getRevision()))
+                .toList();
+        return Stream.of(users, requests, items).flatMap(List::stream).toList();
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private static ItemRequest request(String description, User requestor) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription(description);
+        request.setRequestor(requestor);
+        request.setCreated(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return request;
+    }
+
+    private static Item item(String name, String description, User owner, ItemRequest request) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+
+    private static Booking booking(Item item, User booker, int startHour, int endHour) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(NOW.plusHours(startHour));
+        booking.setEnd(NOW.plusHours(endHour));
+        booking.setStatus(Booking.Status.WAITING);
+        return booking;
+    }
+
+    private record Storage(FileJournal journal, UserRepositoryImpl users, ItemRepositoryImpl items,
+                           ItemRequestRepositoryImpl requests, BookingRepositoryImpl bookings, DurableStorage storage) {
+
+        static Storage open(Path directory) throws IOException {
+            FileJournal journal = new FileJournal(directory);
+            UserRepositoryImpl users = new UserRepositoryImpl(false, journal);
+            ItemRepositoryImpl items = new ItemRepositoryImpl(0, journal);
+            ItemRequestRepositoryImpl requests = new ItemRequestRepositoryImpl(journal);
+            BookingRepositoryImpl bookings = new BookingRepositoryImpl(journal);
+            DurableStorage storage = new DurableStorage(journal, users, items, requests, bookings, directory,
+                    Duration.ZERO);
+            storage.restore();
+            return new Storage(journal, users, items, requests, bookings, storage);
+        }
+
+        void close() {
+            storage.close();
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileJournalTest {
+    private static final int WRITERS = 16;
+    private static final int RECORDS_PER_WRITER = 200;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void concurrentWritersShareForce() throws Exception {
+        FileJournal journal = new FileJournal(directory);
+        journal.recover(0, record -> {
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(executor.submit(() -> {
+                    for (int r = 0; r < RECORDS_PER_WRITER; r++) {
+                        append(journal, writer + "-" + r);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            journal.close();
+        }
+
+        assertThat(journal.syncCount()).isLessThan(WRITERS * RECORDS_PER_WRITER);
+        List<String> replayed = replay();
+        assertThat(replayed).hasSize(WRITERS * RECORDS_PER_WRITER);
+        for (int w = 0; w < WRITERS; w++) {
+            String prefix = w + "-";
+            assertThat(replayed.stream().filter(record -> record.startsWith(prefix)).toList())
+                    .containsExactlyElementsOf(Stream.iterate(0, r -> r + 1)
+                            .limit(RECORDS_PER_WRITER)
+                            .map(r -> prefix + r)
+                            .toList());
+        }
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsEarlierRecords() throws Exception {
+        FileJournal journal = new FileJournal(directory);
+        journal.recover(0, record -> {
+        });
+        append(journal, "first");
+        append(journal, "second");
+        journal.close();
+
+        Path segment = segments().get(0);
+        long validLength = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(20).putInt(100).putLong(3).putInt(0).flip());
+        }
+
+        assertThat(replay()).containsExactly("first", "second");
+        assertThat(Files.size(segment)).isEqualTo(validLength);
+
+        FileJournal reopened = new FileJournal(directory);
+        reopened.recover(0, record -> {
+        });
+        append(reopened, "third");
+        reopened.close();
+        assertThat(replay()).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void skipsRecordsCoveredBySnapshot() throws Exception {
+        FileJournal journal = new FileJournal(directory);
+        journal.recover(0, record -> {
+        });
+        append(journal, "first");
+        long checkpoint = journal.checkpoint();
+        append(journal, "second");
+        journal.deleteSegmentsUpTo(checkpoint);
+        journal.close();
+
+        List<String> replayed = new ArrayList<>();
+        FileJournal reopened = new FileJournal(directory);
+        assertThat(reopened.recover(checkpoint, record -> replayed.add(decode(record)))).isEqualTo(checkpoint + 1);
+        reopened.close();
+        assertThat(replayed).containsExactly("second");
+    }
+
+    @Test
+    void stopsAcceptingChangesAfterFailedWrite() throws Exception {
+        FileJournal journal = new FileJournal(directory, segment -> {
+            Files.createFile(segment);
+            return FileChannel.open(segment, StandardOpenOption.READ);
+        });
+        journal.recover(0, record -> {
+        });
+
+        assertThatThrownBy(() -> append(journal, "lost")).isInstanceOf(RuntimeException.class);
+        assertThat(journal.failure()).isPresent();
+
+        AtomicBoolean applied = new AtomicBoolean();
+        assertThatThrownBy(() -> journal.write(() -> {
+            applied.set(true);
+            return null;
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(applied).isFalse();
+        assertThatThrownBy(journal::checkpoint).isInstanceOf(IllegalStateException.class);
+        journal.close();
+    }
+
+    private static void append(FileJournal journal, String record) {
+        journal.execute(() -> journal.append(record.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> replayed = new ArrayList<>();
+        FileJournal journal = new FileJournal(directory);
+        journal.recover(0, record -> replayed.add(decode(record)));
+        journal.close();
+        return replayed;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static String decode(ByteBuffer record) {
+        return StandardCharsets.UTF_8.decode(record).toString();
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.user.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.AlreadyExistException;
+import ru.practicum.shareit.pagination.PageQuery;
+import ru.practicum.shareit.storage.Journal;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserRepositoryImplTest {
+    private static final int THREADS = 16;
+
+    private final UserRepositoryImpl repository = new UserRepositoryImpl(false, Journal.NONE);
+
+    @Test
+    void concurrentSavesReserveEmailOnce() throws Exception {
+        List<Callable<User>> saves = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String name = "user " + i;
+            saves.add(() -> repository.save(user(name, "same@example.com")));
+        }
+
+        List<Outcome<User>> outcomes = runTogether(saves);
+
+        List<User> saved = outcomes.stream().filter(Outcome::succeeded).map(Outcome::value).toList();
+        assertThat(saved).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> !outcome.succeeded())
+                .allSatisfy(outcome -> assertThat(outcome.error()).isInstanceOf(AlreadyExistException.class));
+        assertThat(repository.count()).isEqualTo(1L);
+        assertThat(repository.findByEmail("same@example.com")).contains(saved.get(0));
+    }
+
+    @Test
+    void emailMoveRacingWithSaveOfTargetEmailLeavesOneOwner() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            User moving = repository.save(user("moving", "old" + round + "@example.com"));
+            String target = "new" + round + "@example.com";
+
+            List<Outcome<User>> outcomes = runTogether(List.of(
+                    () -> repository.update(moved(moving, target)),
+                    () -> repository.save(user("taker", target))));
+
+            assertThat(outcomes).filteredOn(Outcome::succeeded).hasSize(1);
+            User owner = outcomes.stream().filter(Outcome::succeeded).findFirst().orElseThrow().value();
+            assertThat(repository.findByEmail(target).orElseThrow().getId()).isEqualTo(owner.getId());
+            if (owner.getId().equals(moving.getId())) {
+                assertThat(repository.findByEmail("old" + round + "@example.com")).isEmpty();
+            } else {
+                assertThat(repository.findByEmail("old" + round + "@example.com").orElseThrow().getId())
+                        .isEqualTo(moving.getId());
+            }
+        }
+    }
+
+    @Test
+    void failedEmailMoveKeepsOldEmailReserved() {
+        User first = repository.save(user("first", "first@example.com"));
+        User second = repository.save(user("second", "second@example.com"));
+
+        assertThatThrownBy(() -> repository.update(moved(second, "first@example.com")))
+                .isInstanceOf(AlreadyExistException.class);
+
+        assertThat(repository.findByEmail("first@example.com").orElseThrow().getId()).isEqualTo(first.getId());
+        assertThat(repository.findByEmail("second@example.com").orElseThrow().getId()).isEqualTo(second.getId());
+        assertThatThrownBy(() -> repository.save(user("third", "second@example.com")))
+                .isInstanceOf(AlreadyExistException.class);
+    }
+
+    @Test
+    void emailMoveReleasesOldEmail() {
+        User user = repository.save(user("user", "old@example.com"));
+
+        repository.update(moved(user, "new@example.com"));
+
+        assertThat(repository.findByEmail("old@example.com")).isEmpty();
+        assertThat(repository.findByEmail("new@example.com").orElseThrow().getId()).isEqualTo(user.getId());
+        assertThat(repository.save(user("next", "old@example.com")).getEmail()).isEqualTo("old@example.com");
+    }
+
+    @Test
+    void failedBatchReleasesEmailsReservedBeforeConflict() {
+        repository.save(user("existing", "taken@example.com"));
+
+        assertThatThrownBy(() -> repository.saveAll(List.of(
+                user("first", "free@example.com"),
+                user("second", "taken@example.com"))))
+                .isInstanceOf(AlreadyExistException.class);
+
+        assertThat(repository.findByEmail("free@example.com")).isEmpty();
+        assertThat(repository.findAll(PageQuery.unpaged())).extracting(User::getName).containsExactly("existing");
+        assertThat(repository.save(user("retry", "free@example.com")).getEmail()).isEqualTo("free@example.com");
+    }
+
+    @Test
+    void ignoreCaseModeTreatsEmailsDifferingInCaseAsOne() {
+        UserRepositoryImpl ignoringCase = new UserRepositoryImpl(true, Journal.NONE);
+        User user = ignoringCase.save(user("user", "Mixed@Example.com"));
+
+        assertThatThrownBy(() -> ignoringCase.save(user("other", "mixed@EXAMPLE.COM")))
+                .isInstanceOf(AlreadyExistException.class);
+        assertThat(ignoringCase.findByEmail("MIXED@example.com").orElseThrow().getId()).isEqualTo(user.getId());
+        assertThat(ignoringCase.findExistingEmails(List.of("mixed@example.com", "free@example.com")))
+                .containsExactly("mixed@example.com");
+
+        User recased = ignoringCase.update(moved(user, "mixed@example.com"));
+
+        assertThat(recased.getEmail()).isEqualTo("mixed@example.com");
+        assertThat(ignoringCase.findByEmail("Mixed@Example.com").orElseThrow().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void caseSensitiveModeKeepsEmailsDifferingInCaseApart() {
+        repository.save(user("user", "Mixed@Example.com"));
+
+        User other = repository.save(user("other", "mixed@example.com"));
+
+        assertThat(repository.findByEmail("mixed@example.com").orElseThrow().getId()).isEqualTo(other.getId());
+        assertThat(repository.findByEmail("MIXED@EXAMPLE.COM")).isEmpty();
+    }
+
+    @Test
+    void pagesCountOffsetFromCursorAndEndWithEmptyTail() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(repository.save(user("user " + i, "page" + i + "@example.com")).getId());
+        }
+
+        assertThat(page(new PageQuery(0, 0, 3))).containsExactlyElementsOf(ids.subList(0, 3));
+        assertThat(page(new PageQuery(ids.get(2), 0, 3))).containsExactlyElementsOf(ids.subList(3, 6));
+        assertThat(page(new PageQuery(ids.get(2), 2, 3))).containsExactlyElementsOf(ids.subList(5, 7));
+        assertThat(page(new PageQuery(ids.get(5), 0, 3))).containsExactly(ids.get(6));
+        assertThat(page(new PageQuery(ids.get(6), 0, 3))).isEmpty();
+        assertThat(page(new PageQuery(ids.get(2), 4, 3))).isEmpty();
+        assertThat(page(new PageQuery(Long.MAX_VALUE, 0, 3))).isEmpty();
+    }
+
+    @Test
+    void cursorOfDeletedUserStillContinuesAfterIt() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(repository.save(user("user " + i, "deleted-cursor" + i + "@example.com")).getId());
+        }
+
+        repository.deleteById(ids.get(1));
+
+        assertThat(page(new PageQuery(ids.get(1), 0, 10))).containsExactlyElementsOf(ids.subList(2, 4));
+        assertThat(page(new PageQuery(0, 1, 10))).containsExactlyElementsOf(ids.subList(2, 4));
+    }
+
+    private static <T> List<Outcome<T>> runTogether(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<Outcome<T>> outcomes = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    outcomes.add(new Outcome<>(future.get(5, TimeUnit.SECONDS), null));
+                } catch (ExecutionException e) {
+                    outcomes.add(new Outcome<>(null, e.getCause()));
+                } catch (TimeoutException e) {
+                    throw new AssertionError("Операция не завершилась за 5 секунд", e);
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> page(PageQuery page) {
+        return repository.findAll(page).stream().map(User::getId).toList();
+    }
+
+    private static User moved(User current, String email) {
+        User user = user(current.getName(), email);
+        user.setId(current.getId());
+        user.setVersion(current.getVersion());
+        return user;
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    private record Outcome<T>(T value, Throwable error) {
+        boolean succeeded() {
+            return error == null;
+        }
+    }
+}